@@ -1,8 +1,15 @@
 package src;
 
-import src.brick_strategies.CollisionStrategy;
+import src.assets.AssetCache;
+import src.audio.CollisionSoundMixer;
+import src.brick_strategies.BrickRemovalQueue;
+import src.brick_strategies.BrickStrategyFactory;
+import src.collisions.BrickGrid;
+import src.collisions.CollisionMatrix;
+import src.collisions.ContinuousCollider;
 import danogl.GameManager;
 import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
 import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
 import danogl.gui.*;
@@ -10,14 +17,75 @@ import danogl.gui.rendering.Renderable;
 import danogl.util.Counter;
 import danogl.util.Vector2;
 import src.gameobjects.*;
+import src.util.ObjectPool;
+import src.util.ObservableCounter;
+import src.util.PositionInterpolator;
+import src.util.RestorableRandom;
+import src.util.TickScheduler;
+import src.headless.HeadlessRunner;
+import src.levels.Level;
+import src.levels.LevelLoader;
+import src.metrics.DebugOverlay;
+import src.metrics.FrameMetrics;
+import src.metrics.FramePhase;
+import src.metrics.RenderMarker;
+import src.paddle_controllers.BotController;
+import src.paddle_controllers.BotSkill;
+import src.paddle_controllers.KeyboardController;
+import src.paddle_controllers.PaddleController;
+import src.power_ups.PowerUpDrops;
+import src.power_ups.PowerUpEffects;
+import src.power_ups.PowerUpType;
+import src.replay.SessionRecorder;
+import src.replay.SessionReplayer;
+import src.spectator.SpectatorServer;
 
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Principle class of Bricker game.
  */
 public class BrickerGameManager extends GameManager {
 
+    /** Title of the window housing the game. */
+    public static final String WINDOW_TITLE = "Bricker";
+    /** Dimensions of the window housing the game. */
+    public static final Vector2 WINDOW_DIMENSIONS = new Vector2(700, 500);
+    /**
+     * Frames per second the game targets during play, and simulation steps per second of game time.
+     * Collisions are swept, so the game stays correct at 30-60.
+     */
+    public static final int TARGET_FRAMERATE = 60;
+    private static final int IDLE_FRAMERATE = 10; // while paused or prompting
+    private static final float SIMULATION_STEP = 1f / TARGET_FRAMERATE;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private static final String HEADLESS_FLAG = "--headless";
+    private static final String RECORD_FLAG = "--record";
+    private static final String REPLAY_FLAG = "--replay";
+    private static final String LEVEL_FLAG = "--level";
+    private static final String BOT_FLAG = "--bot";
+    private static final String SPECTATE_FLAG = "--spectate";
+    private static final float LIFE_LOST_PAUSE = 2; // seconds before play resumes on its own
+    private static final float PROMPT_WIDTH = 400;
+    private static final float PROMPT_HEIGHT = 30;
+    private static final String CONTINUE_PROMPT = " Press Enter to continue.";
+    private static final String PLAY_AGAIN_PROMPT = " Play again? (Y/N)";
+    private static final String LIFE_LOST_PROMPT = "You lost a life!" + CONTINUE_PROMPT;
+    private static final int SNAPSHOT_MAGIC = 0x42525353; // "BRSS"
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int SNAPSHOT_HEADER_SIZE = 5 * Integer.BYTES + Float.BYTES + Long.BYTES;
+    private static final int DEBUG_OVERLAY_KEY = KeyEvent.VK_F3;
+    private static final float DEBUG_OVERLAY_HEIGHT = 20;
+    private static final String METRICS_CSV = "frame_metrics.csv";
+
     // constant distances are in numbers of pixels
     private static final float BALL_SIZE = 20;
     private static final float BALL_SPEED = 200;
@@ -26,6 +94,9 @@ public class BrickerGameManager extends GameManager {
     private static final float PADDLE_DIST_FROM_BOTTOM = 30;
     private static final int BRICKS_PER_ROW = 8;
     private static final int BRICKS_PER_COLUMN = 5;
+    private static final int NUM_BALLS = 1;
+    private static final float BRICK_AREA_HEIGHT_FRACTION = 0.5f; // bricks never go below mid-window
+    private static final float MIN_BRICK_SIZE = 1;
     private static final float BRICK_HEIGHT = 15;
     private static final int MIN_DIST_FROM_EDGE = 10;
     private static final float COUNTERS_X = 10;
@@ -33,19 +104,79 @@ public class BrickerGameManager extends GameManager {
     private static final float COUNTERS_HEIGHT = 15;
     private static final float COUNTERS_WIDTH = 15;
     private static final int NUM_LIVES = 2;
+    private static final int MAX_LIVES = NUM_LIVES + 2; // extra lives may be caught up to this many
+    private static final float POWER_UP_SIZE = 20;
     private static final float N_COUNTER_Y_FROM_BTM = 90;
     private static int BORDER_WIDTH = 5;
     private static final float BRICK_BORDER_CLEARANCE = 5;
     private static final float BRICK_BRICK_CLEARANCE = 1;
+    private static final int ASSET_CACHE_CAPACITY = 32;
+    private static final String BACKGROUND_IMAGE = "assets/DARK_BG2_small.jpeg";
+    private static final String BRICK_IMAGE = "assets/brick.png";
+    private static final String BALL_IMAGE = "assets/ball.png";
+    private static final String PADDLE_IMAGE = "assets/paddle.png";
+    private static final String BOT_GOOD_IMAGE = "assets/botGood.png";
+    private static final String BOT_BAD_IMAGE = "assets/botBad.png";
+    private static final String HEART_IMAGE = "assets/heart.png";
+    private static final String COLLISION_SOUND = "assets/blop_cut_silenced.wav";
+    private static final int MAX_COLLISION_VOICES = 4;
+    private final Level level;
+    private final int numBalls;
+    private final int numSwarmBalls;
+    private final float brickClearance;
     private final float brickWidth;
+    private final float brickHeight;
     private final Vector2 windowDimensions;
-    private Ball ball;
-    private ImageReader imageReader;
-    private SoundReader soundReader;
+    private final Vector2 windowCenter;
+    private final BrickGrid brickGrid;
+    private Ball[] balls;
+    private Paddle paddle;
+    private BallSwarm ballSwarm;
+    private BrickField brickField;
+    private PowerUpEffects powerUpEffects;
+    private PowerUpDrops powerUpDrops;
+    private BrickStrategyFactory strategyFactory;
+    private BakedStaticLayer staticLayer;
+    private ForkJoinPool physicsPool = null;
+    private ContinuousCollider continuousCollider;
+    // only balls and paddle meet in the engine's collision pass; bricks, walls, swarm and power-ups are
+    // collided by hand, and the rest never collide.
+    private final CollisionMatrix collisionMatrix = new CollisionMatrix().allow(Layer.DEFAULT, Layer.DEFAULT);
+    private OverlayPrompt overlayPrompt;
+    private boolean soundEnabled = true;
+    private CollisionSoundMixer soundMixer;
+    private GameState state;
+    private final FrameMetrics frameMetrics = new FrameMetrics();
+    private DebugOverlay debugOverlay;
+    private RenderMarker renderStartMarker;
+    private RenderMarker renderEndMarker;
+    private boolean debugKeyWasPressed = false;
+    private long seed = new Random().nextLong();
+    // the game's only source of randomness, for replay; its state is part of every snapshot.
+    private final RestorableRandom random = new RestorableRandom(seed);
+    private SessionRecorder sessionRecorder;
+    private SpectatorServer spectatorServer;
+    private BotSkill botSkill = null; // paddle is played by the player
+    private float stateTime; // seconds since state was entered
+    private final TickScheduler tickScheduler = new TickScheduler(SIMULATION_STEP, MAX_STEPS_PER_FRAME);
+    private final PositionInterpolator interpolator = new PositionInterpolator();
+    private GameObject background;
+    private GraphicLifeCounter graphicLifeCounter;
+    private NumericLifeCounter numericLifeCounter;
+    private final AssetCache assetCache = new AssetCache(ASSET_CACHE_CAPACITY); // kept across resets
     private UserInputListener inputListener;
     private WindowController windowController;
     private Counter brickCounter = new Counter();
-    private Counter livesCounter = new Counter();
+    private final ObservableCounter livesCounter = new ObservableCounter(); // HUD subscribes to changes
+    // game objects are created once and re-armed on every reset, rather than re-allocated.
+    private final ObjectPool<Brick> brickPool = new ObjectPool<>(() -> new Brick(Vector2.ZERO, Vector2.ZERO,
+            null, null));
+    // bricks live as objects only from the moment they are broken until the end of that frame.
+    private final BrickRemovalQueue brickRemovalQueue = new BrickRemovalQueue(brickCounter,
+            this::recycleBrick);
+    private final ObjectPool<Ball> ballPool = new ObjectPool<>(() -> new Ball(Vector2.ZERO,
+            new Vector2(BALL_SIZE, BALL_SIZE), assetCache.image(BALL_IMAGE, true),
+            soundMixer));
 
 
     /**
@@ -54,15 +185,75 @@ public class BrickerGameManager extends GameManager {
      * @param windowDimensions Dimensions of window to house game.
      */
     public BrickerGameManager(String windowTitle, Vector2 windowDimensions) {
+        this(windowTitle, windowDimensions, BRICKS_PER_ROW, BRICKS_PER_COLUMN, NUM_BALLS, 0);
+    }
+
+    /**
+     * Constructor for Bricker Game Manager with a custom brick grid and number of balls.
+     * @param windowTitle Title to be given to window that houses game.
+     * @param windowDimensions Dimensions of window to house game.
+     * @param bricksPerRow Number of bricks in each row of the brick grid.
+     * @param bricksPerColumn Number of bricks in each column of the brick grid.
+     * @param numBalls Number of balls in play at the beginning of the game.
+     * @param numSwarmBalls Number of extra balls, moved together as a swarm, in play at the beginning of
+     *                      the game. Swarm balls that fall past the paddle leave the game without costing a
+     *                      life.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, int bricksPerRow,
+                              int bricksPerColumn, int numBalls, int numSwarmBalls) {
+        this(windowTitle, windowDimensions, Level.full(bricksPerColumn, bricksPerRow), numBalls,
+                numSwarmBalls);
+    }
+
+    /**
+     * Constructor for Bricker Game Manager playing a given level, with the default number of balls.
+     * @param windowTitle Title to be given to window that houses game.
+     * @param windowDimensions Dimensions of window to house game.
+     * @param level Layout of the bricks, fitted to the top of the window.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, Level level) {
+        this(windowTitle, windowDimensions, level, NUM_BALLS, 0);
+    }
+
+    /**
+     * Constructor for Bricker Game Manager playing a given level.
+     * @param windowTitle Title to be given to window that houses game.
+     * @param windowDimensions Dimensions of window to house game.
+     * @param level Layout of the bricks, fitted to the top of the window.
+     * @param numBalls Number of balls in play at the beginning of the game.
+     * @param numSwarmBalls Number of extra balls, moved together as a swarm, in play at the beginning of
+     *                      the game. Swarm balls that fall past the paddle leave the game without costing a
+     *                      life.
+     */
+    public BrickerGameManager(String windowTitle, Vector2 windowDimensions, Level level, int numBalls,
+                              int numSwarmBalls) {
         super(windowTitle, windowDimensions);
         this.windowDimensions = windowDimensions;
-        float totalBricksWidth = windowDimensions.x() - (2 * (BORDER_WIDTH + BRICK_BORDER_CLEARANCE)) -
-                ((BRICKS_PER_ROW - 1) * BRICK_BRICK_CLEARANCE);
-        brickWidth = totalBricksWidth / BRICKS_PER_ROW;
+        this.windowCenter = windowDimensions.mult(0.5f);
+        this.level = level;
+        int bricksPerRow = level.cols();
+        int bricksPerColumn = level.rows();
+        this.numBalls = numBalls;
+        this.numSwarmBalls = numSwarmBalls;
+        float bricksAreaWidth = windowDimensions.x() - (2 * (BORDER_WIDTH + BRICK_BORDER_CLEARANCE));
+        float bricksAreaHeight = windowDimensions.y() * BRICK_AREA_HEIGHT_FRACTION -
+                (BORDER_WIDTH + BRICK_BORDER_CLEARANCE);
+        // huge grids leave no room for clearance between bricks.
+        boolean clearanceFits = bricksPerRow * (MIN_BRICK_SIZE + BRICK_BRICK_CLEARANCE) <= bricksAreaWidth &&
+                bricksPerColumn * (MIN_BRICK_SIZE + BRICK_BRICK_CLEARANCE) <= bricksAreaHeight;
+        brickClearance = clearanceFits ? BRICK_BRICK_CLEARANCE : 0;
+        float totalBricksWidth = bricksAreaWidth - ((bricksPerRow - 1) * brickClearance);
+        brickWidth = totalBricksWidth / bricksPerRow;
+        brickHeight = Math.min(BRICK_HEIGHT, bricksAreaHeight / bricksPerColumn - brickClearance);
+        float gridCorner = BORDER_WIDTH + BRICK_BORDER_CLEARANCE; // location of top-left brick.
+        brickGrid = new BrickGrid(Vector2.of(gridCorner, gridCorner), bricksPerRow, bricksPerColumn,
+                brickWidth, brickHeight, brickClearance);
+        brickGrid.setMaterializer(this::materializeBrick);
     }
 
     /**
-     * Creates and places all the necessary objects to begin Bricker game.
+     * Creates and places all the necessary objects to begin Bricker game. Objects left over from a previous
+     * game are re-armed and placed again.
      * @param imageReader object to process images that will compose game objects.
      * @param soundReader object to process sound files that will compose game sounds.
      * @param inputListener object to process user input.
@@ -73,43 +264,139 @@ public class BrickerGameManager extends GameManager {
                                UserInputListener inputListener, WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
 
+        livesCounter.reset();
         livesCounter.increaseBy(NUM_LIVES);
-        this.imageReader = imageReader;
-        this.soundReader = soundReader;
+        brickCounter.reset();
+        brickPool.releaseAll();
+        ballPool.releaseAll();
+        assetCache.setImageReader(imageReader);
         this.inputListener = inputListener;
         this.windowController = windowController;
 
-        windowController.setTargetFramerate(150);
-
+        collisionMatrix.apply(gameObjects().layers());
+        preloadAssets();
+        initializeSoundMixer();
         initializeBackground();
-        initializeWalls();
-        initializeBall();
+        initializeBalls();
         initializePaddle();
+        initializePowerUps();
         initializeBricks();
+        initializeStaticLayer();
+        initializeBallSwarm();
+        continuousCollider = new ContinuousCollider(brickGrid, BORDER_WIDTH,
+                windowDimensions.x() - BORDER_WIDTH, BORDER_WIDTH, paddle);
         initializeGraphicCounter();
         initializeNumCounter();
+        initializeOverlayPrompt();
+        initializeDebugOverlay();
+        initializeRenderMarkers();
+        initializeInterpolation();
+        if (spectatorServer != null) {
+            spectatorServer.requestKeyframe(); // spectators start the new game from its full state
+        }
+        enterState(GameState.PLAYING);
+    }
+
+    /**
+     * Tracks the balls and paddle, whose motion is interpolated between simulation steps when drawn.
+     */
+    private void initializeInterpolation() {
+        GameObject[] movingObjects = Arrays.copyOf(balls, balls.length + 1, GameObject[].class);
+        movingObjects[balls.length] = paddle;
+        interpolator.track(movingObjects);
+    }
+
+    /**
+     * Creates (on first game only) and places the overlay showing frame metrics, hidden until toggled.
+     */
+    private void initializeDebugOverlay() {
+        if (debugOverlay == null) {
+            debugOverlay = new DebugOverlay(Vector2.of(COUNTERS_X, BORDER_WIDTH),
+                    Vector2.of(windowDimensions.x() - 2 * COUNTERS_X, DEBUG_OVERLAY_HEIGHT), frameMetrics);
+        }
+        gameObjects().addGameObject(debugOverlay, Layer.UI);
     }
 
     /**
-     * Creates and places numeric life counter.
+     * Creates (on first game only) and places the invisible markers timing the drawing of each frame.
+     */
+    private void initializeRenderMarkers() {
+        if (renderStartMarker == null) {
+            renderStartMarker = new RenderMarker(frameMetrics, true);
+            renderEndMarker = new RenderMarker(frameMetrics, false);
+        }
+        gameObjects().addGameObject(renderStartMarker, RenderMarker.FIRST_LAYER);
+        gameObjects().addGameObject(renderEndMarker, RenderMarker.LAST_LAYER);
+    }
+
+    /**
+     * Creates (on first game only) and places the prompt shown over the game between plays.
+     */
+    private void initializeOverlayPrompt() {
+        if (overlayPrompt == null) {
+            Vector2 promptDimensions = Vector2.of(PROMPT_WIDTH, PROMPT_HEIGHT);
+            overlayPrompt = new OverlayPrompt(windowCenter.subtract(promptDimensions.mult(0.5f)),
+                    promptDimensions);
+        }
+        gameObjects().addGameObject(overlayPrompt, Layer.UI);
+    }
+
+    /**
+     * Decodes every asset of the game up front, so no object creation waits on decoding. Assets already
+     * cached by a previous game are not decoded again.
+     */
+    private void preloadAssets() {
+        assetCache.image(BACKGROUND_IMAGE, false);
+        assetCache.image(BRICK_IMAGE, false);
+        assetCache.image(BALL_IMAGE, true);
+        assetCache.image(PADDLE_IMAGE, true);
+        if (botSkill != null) {
+            assetCache.image(botSkill == BotSkill.GOOD ? BOT_GOOD_IMAGE : BOT_BAD_IMAGE, true);
+        }
+        assetCache.image(HEART_IMAGE, true);
+        for (PowerUpType type : PowerUpType.values()) {
+            assetCache.image(type.imagePath(), true);
+        }
+    }
+
+    /**
+     * Creates (on first game only) the mixer playing collision sounds. If the sound cannot be decoded, the
+     * game runs silently.
+     */
+    private void initializeSoundMixer() {
+        if (soundMixer != null || !soundEnabled) {
+            return;
+        }
+        try {
+            soundMixer = new CollisionSoundMixer(COLLISION_SOUND, MAX_COLLISION_VOICES);
+        } catch (IOException | UnsupportedAudioFileException e) {
+            soundEnabled = false;
+        }
+    }
+
+    /**
+     * Creates (on first game only) and places numeric life counter.
      */
     private void initializeNumCounter() {
-        NumericLifeCounter numericLifeCounter = new NumericLifeCounter(livesCounter, Vector2.of(COUNTERS_X,
-                windowDimensions.y() - N_COUNTER_Y_FROM_BTM), Vector2.of(COUNTERS_WIDTH, COUNTERS_HEIGHT),
-                gameObjects());
-        gameObjects().addGameObject(numericLifeCounter);
+        if (numericLifeCounter == null) {
+            numericLifeCounter = new NumericLifeCounter(livesCounter,
+                    Vector2.of(COUNTERS_X, windowDimensions.y() - N_COUNTER_Y_FROM_BTM),
+                    Vector2.of(COUNTERS_WIDTH, COUNTERS_HEIGHT));
+        }
+        gameObjects().addGameObject(numericLifeCounter, Layer.UI);
     }
 
     /**
-     * Creates and places graphic life counter.
+     * Creates (on first game only) and places graphic life counter.
      */
     private void initializeGraphicCounter() {
-        Renderable widgetRenderable = imageReader.readImage("assets/heart.png", true);
-        GraphicLifeCounter graphicLifeCounter = new GraphicLifeCounter(Vector2.of(COUNTERS_X,
-            windowDimensions.y() - G_COUNTER_Y_FROM_BTM),
-                Vector2.of(COUNTERS_WIDTH, COUNTERS_HEIGHT), livesCounter, widgetRenderable,
-                gameObjects(), NUM_LIVES);
-        gameObjects().addGameObject(graphicLifeCounter);
+        if (graphicLifeCounter == null) {
+            Renderable widgetRenderable = assetCache.image(HEART_IMAGE, true);
+            graphicLifeCounter = new GraphicLifeCounter(Vector2.of(COUNTERS_X,
+                windowDimensions.y() - G_COUNTER_Y_FROM_BTM),
+                    Vector2.of(COUNTERS_WIDTH, COUNTERS_HEIGHT), livesCounter, widgetRenderable, MAX_LIVES);
+        }
+        gameObjects().addGameObject(graphicLifeCounter, Layer.UI);
     }
 
     /**
@@ -118,27 +405,176 @@ public class BrickerGameManager extends GameManager {
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
+        long phaseStart = frameMetrics.beginFrame();
+        interpolator.restore(); // the game is simulated, and recorded, from where objects actually are
+        if (sessionRecorder != null) {
+            sessionRecorder.recordFrame(deltaTime, inputListener);
+        }
+        stateTime += deltaTime;
+        checkDebugToggle();
+        switch (state) {
+            case PLAYING:
+                updatePlaying(deltaTime, phaseStart);
+                break;
+            case LIFE_LOST:
+                if (inputListener.isKeyPressed(KeyEvent.VK_ENTER) || stateTime >= LIFE_LOST_PAUSE) {
+                    enterState(GameState.PLAYING);
+                }
+                break;
+            case GAME_OVER:
+                if (inputListener.isKeyPressed(KeyEvent.VK_Y)) {
+                    enterState(GameState.RESTART);
+                    windowController.resetGame();
+                } else if (inputListener.isKeyPressed(KeyEvent.VK_N)) {
+                    windowController.closeWindow(); // the sound mixer is closed with the session
+                }
+                break;
+            default: // RESTART, waiting for the reset to take place
+                break;
+        }
+        if (spectatorServer != null) {
+            spectatorServer.publish(balls, paddle, livesCounter.value(), brickGrid);
+        }
+        frameMetrics.endFrame();
+    }
+
+    /**
+     * Runs a frame of play: simulates the whole fixed steps of game time the frame completes, then places
+     * the moving objects where they are drawn, between their last two simulated positions.
+     * @param deltaTime The time, in seconds, that passed since the last invocation of update.
+     * @param phaseStart Start time of the frame, in nanoseconds.
+     */
+    private void updatePlaying(float deltaTime, long phaseStart) {
+        int steps = tickScheduler.advance(deltaTime);
+        for (int i = 0; i < steps && state == GameState.PLAYING; i++) {
+            interpolator.beforeStep();
+            phaseStart = simulateStep(tickScheduler.stepSeconds(), phaseStart);
+        }
+        if (soundMixer != null) {
+            soundMixer.endFrame(); // at most one collision sound per frame
+        }
+        if (state == GameState.PLAYING) {
+            interpolator.interpolate(tickScheduler.alpha());
+        }
+    }
+
+    /**
+     * Simulates a single step of play: moves and collides all objects and applies the game's rules.
+     * @param stepSeconds Duration of the step, in seconds.
+     * @param phaseStart Start time of the step, in nanoseconds.
+     * @return End time of the step, in nanoseconds.
+     */
+    private long simulateStep(float stepSeconds, long phaseStart) {
+        int collisions = sweepBalls(stepSeconds);
+        phaseStart = frameMetrics.endPhase(FramePhase.COLLISIONS, phaseStart);
+        super.update(stepSeconds);
+        phaseStart = frameMetrics.endPhase(FramePhase.OBJECT_UPDATE, phaseStart);
+        collisions += collideBricks();
+        collisions += brickRemovalQueue.flush(); // bricks broken this step leave the game together
+        frameMetrics.addCollisions(collisions);
+        phaseStart = frameMetrics.endPhase(FramePhase.COLLISIONS, phaseStart);
+        powerUpDrops.step();
+        powerUpEffects.step();
         checkLifeLost();
         checkGameEnd();
+        return frameMetrics.endPhase(FramePhase.GAME_LOGIC, phaseStart);
+    }
+
+    /**
+     * Shows or hides the debug overlay when its key is pressed.
+     */
+    private void checkDebugToggle() {
+        boolean pressed = inputListener.isKeyPressed(DEBUG_OVERLAY_KEY);
+        if (pressed && !debugKeyWasPressed) {
+            debugOverlay.toggle();
+        }
+        debugKeyWasPressed = pressed;
+    }
+
+    /**
+     * Moves the game to a new state, showing or hiding the overlay prompt as needed. Frames are rendered
+     * at the full rate only during play; while the game waits on the player, they drop to an idle rate.
+     * @param newState State to enter.
+     * @param prompt Message to show over the game, or null for none.
+     */
+    private void enterState(GameState newState, String prompt) {
+        state = newState;
+        stateTime = 0;
+        if (newState == GameState.PLAYING) {
+            windowController.setTargetFramerate(TARGET_FRAMERATE);
+            tickScheduler.reset(); // time spent paused is not simulated
+            interpolator.beforeStep(); // objects may have been placed anew, nothing to interpolate from
+        } else {
+            windowController.setTargetFramerate(IDLE_FRAMERATE);
+        }
+        if (prompt == null) {
+            overlayPrompt.hide();
+        } else {
+            overlayPrompt.show(prompt);
+        }
+    }
+
+    /**
+     * Moves the game to a new state, with no prompt shown over the game.
+     * @param newState State to enter.
+     */
+    private void enterState(GameState newState) {
+        enterState(newState, null);
+    }
+
+    /**
+     * Sweeps every ball's path for the coming frame, before the engine moves it, so that no ball passes
+     * through a brick, wall or the paddle between two frames.
+     * @param deltaTime Duration of the coming frame, in seconds.
+     * @return Number of balls that hit something.
+     */
+    private int sweepBalls(float deltaTime) {
+        int hits = 0;
+        for (Ball ball : balls) {
+            if (continuousCollider.step(ball, deltaTime)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Tests every ball against the brick grid. Balls and bricks are kept out of the engine's collision pass,
+     * which would otherwise test each ball against every brick.
+     * @return Number of balls that hit a brick.
+     */
+    private int collideBricks() {
+        int hits = 0;
+        for (Ball ball : balls) {
+            if (brickGrid.collide(ball)) {
+                hits++;
+            }
+        }
+        return hits;
     }
 
     /**
-     * Checks if the game has ended based on the game's logic and communicates with user accordingly.
+     * Checks if a life was lost based on the game's logic and communicates with user accordingly.
      */
     private void checkLifeLost() {
-        float ballHeight = ball.getCenter().y();
-        if (ballHeight > windowDimensions.y()) { // ball has passed paddle on bottom of screen.
-            livesCounter.decrement();
-            if (livesCounter.value() == 0) {
-                return;
+        for (Ball ball : balls) {
+            // center computed from stored vectors, as getCenter() allocates.
+            float ballHeight = ball.getTopLeftCorner().y() + ball.getDimensions().y() / 2;
+            if (ballHeight > windowDimensions.y()) { // ball has passed paddle on bottom of screen.
+                livesCounter.decrement();
+                if (livesCounter.value() == 0) {
+                    return;
+                }
+                enterState(GameState.LIFE_LOST, LIFE_LOST_PROMPT);
+                ball.setCenter(windowCenter);
+                interpolator.forget(); // the ball is placed, not moved, back at the center
             }
-            String prompt = "You lost a life!";
-            windowController.showMessageBox(prompt);
-            ball.setCenter(windowDimensions.mult(0.5f));
         }
     }
 
+    /**
+     * Checks if the game has ended based on the game's logic and asks the user whether to play again.
+     */
     private void checkGameEnd(){
         String prompt = "";
         if (brickCounter.value() == 0) {
@@ -148,71 +584,100 @@ public class BrickerGameManager extends GameManager {
             prompt = "You lose!";
         }
         if (!(prompt.isEmpty())) {
-            prompt += " Play again?";
-            if (windowController.openYesNoDialog(prompt)) {
-                windowController.resetGame();
-            } else {
-                windowController.closeWindow();
-            }
+            enterState(GameState.GAME_OVER, prompt + PLAY_AGAIN_PROMPT);
         }
     }
 
     /**
-     * Creates and places brick objects.
+     * Loads the level into the brick grid, and creates (on first game only) the field drawing its bricks
+     * as part of the static layer. Brick objects are only created when a brick is broken.
      */
     private void initializeBricks() {
-
-        float brickLocY = BORDER_WIDTH + BRICK_BORDER_CLEARANCE; // y-value of location of top row bricks.
-        for (int i = 0; i < BRICKS_PER_COLUMN; i++) {
-            float brickLocX = BORDER_WIDTH + BRICK_BORDER_CLEARANCE; // x-value of loc of left column bricks.
-            for (int j = 0; j < BRICKS_PER_ROW; j++) {
-                initializeSingleBrick(brickLocX, brickLocY);
-                brickLocX += brickWidth + BRICK_BRICK_CLEARANCE; // increment to next column
-            }
-            brickLocY += BRICK_HEIGHT + BRICK_BRICK_CLEARANCE; // increment to next row
+        brickRemovalQueue.rearm(gameObjects());
+        brickGrid.load(level);
+        brickCounter.increaseBy(brickGrid.brickCount());
+        if (brickField == null) {
+            int cols = level.cols();
+            int rows = level.rows();
+            Vector2 fieldDimensions = Vector2.of(cols * brickWidth + (cols - 1) * brickClearance,
+                    rows * brickHeight + (rows - 1) * brickClearance);
+            brickField = new BrickField(brickGrid.cellTopLeftCorner(0, 0), fieldDimensions, brickGrid,
+                    assetCache.image(BRICK_IMAGE, false));
         }
+    }
 
+    /**
+     * Returns a brick removed from the game to the brick pool, and redraws the part of the static layer it
+     * covered.
+     * @param brick Brick removed.
+     */
+    private void recycleBrick(GameObject brick) {
+        staticLayer.invalidate(brick.getTopLeftCorner(), brick.getDimensions());
+        brickPool.release((Brick) brick);
     }
 
     /**
-     * Creates and places a single brick in the given location.
-     * @param brickLocX x-value of top-left corner of brick to be created.
-     * @param brickLocY y-value of top-left corner of brick to be created.
+     * Creates the object of a brick being broken, taken from the brick pool. It is placed in the game so
+     * that its strategy can act on it, and leaves the game, back to the pool, at the end of the frame.
+     * @param cell Index of the brick's cell in the brick grid.
+     * @return The brick.
      */
-    private void initializeSingleBrick(float brickLocX, float brickLocY) {
-        GameObject brick = new Brick(Vector2.of(brickLocX, brickLocY),
-                Vector2.of(brickWidth, BRICK_HEIGHT),
-                imageReader.readImage("assets/brick.png", false),
-                new CollisionStrategy(gameObjects()), brickCounter);
+    private Brick materializeBrick(int cell) {
+        Brick brick = brickPool.acquire();
+        brick.rearm(brickGrid.cellTopLeftCorner(cell), brickGrid.brickDimensions(),
+                assetCache.image(BRICK_IMAGE, false), strategyFactory.next());
         gameObjects().addGameObject(brick, Layer.STATIC_OBJECTS);
-        brickCounter.increment();
+        return brick;
     }
 
     /**
-     * Creates and places background picture.
+     * Creates (on first game only) the background picture. It is drawn as part of the static layer.
      */
     private void initializeBackground() {
-        GameObject background = new GameObject(Vector2.ZERO, windowDimensions,
-                imageReader.readImage("assets/DARK_BG2_small.jpeg", false));
-        background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-        gameObjects().addGameObject(background, Layer.BACKGROUND);
+        if (background == null) {
+            background = new GameObject(Vector2.ZERO, windowDimensions,
+                    assetCache.image(BACKGROUND_IMAGE, false));
+            background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        }
+    }
+
+    /**
+     * Creates (on first game only) and places the layer baking the background and bricks into a single
+     * image. The whole image is redrawn for the new game.
+     */
+    private void initializeStaticLayer() {
+        if (staticLayer == null) {
+            staticLayer = new BakedStaticLayer(Vector2.ZERO, windowDimensions, background, brickField);
+        }
+        staticLayer.invalidateAll();
+        gameObjects().addGameObject(staticLayer, Layer.BACKGROUND);
     }
 
 
     /**
-     * Creates and places ball object.
+     * Places ball objects, taken from the ball pool.
+     */
+    private void initializeBalls() {
+        if (balls == null) {
+            balls = new Ball[numBalls];
+        }
+        for (int i = 0; i < numBalls; i++) {
+            balls[i] = initializeBall(random);
+        }
+    }
+
+    /**
+     * Places a single ball object, taken from the ball pool.
+     * @param rand Source of the ball's random initial direction.
+     * @return The ball placed.
      */
-    private void initializeBall() {
-        Renderable ballImage = imageReader.readImage("assets/ball.png", true);
-        Sound collisionSound = soundReader.readSound("assets/blop_cut_silenced.wav");
-        ball = new Ball(Vector2.ZERO, new Vector2(BALL_SIZE, BALL_SIZE), ballImage,
-                collisionSound);
+    private Ball initializeBall(Random rand) {
+        Ball ball = ballPool.acquire();
 
         float ballVelX = BALL_SPEED;
         float ballVelY = BALL_SPEED;
 
         // ball starts with randomly chosen diagonal velocity.
-        Random rand = new Random();
         if (rand.nextBoolean()) {
             ballVelX *= -1;
         }
@@ -222,19 +687,71 @@ public class BrickerGameManager extends GameManager {
         ball.setVelocity(Vector2.of(ballVelX, ballVelY));
 
         // place ball in center
-        ball.setCenter(windowDimensions.mult(0.5f));
+        ball.setCenter(windowCenter);
         gameObjects().addGameObject(ball);
+        return ball;
+    }
+
+
+    /**
+     * Creates (on first game only) and fills the swarm of extra balls, if the game has one.
+     */
+    private void initializeBallSwarm() {
+        if (numSwarmBalls == 0) {
+            return;
+        }
+        if (ballSwarm == null) {
+            ballSwarm = new BallSwarm(numSwarmBalls, BALL_SIZE, assetCache.image(BALL_IMAGE, true),
+                    soundMixer, windowDimensions, BORDER_WIDTH, brickGrid, paddle);
+            ballSwarm.setPool(physicsPool);
+        }
+        ballSwarm.clear();
+        for (int i = 0; i < numSwarmBalls; i++) {
+            // swarm balls start in the center, with random directions of the same speed as the main ball.
+            double angle = random.nextDouble() * 2 * Math.PI;
+            float speed = BALL_SPEED * (float) Math.sqrt(2);
+            ballSwarm.spawn(windowCenter.x(), windowCenter.y(), speed * (float) Math.cos(angle),
+                    speed * (float) Math.sin(angle));
+        }
+        gameObjects().addGameObject(ballSwarm, Layer.FOREGROUND);
     }
 
+    /**
+     * Creates (on first game only) the power-up drops and effects, and clears those of a previous game.
+     * Also chooses, from then on, the strategy of each brick broken.
+     */
+    private void initializePowerUps() {
+        if (powerUpEffects == null) {
+            powerUpEffects = new PowerUpEffects(paddle, balls, livesCounter, MAX_LIVES,
+                    BALL_SPEED * (float) Math.sqrt(2), SIMULATION_STEP);
+            powerUpDrops = new PowerUpDrops(Vector2.of(POWER_UP_SIZE, POWER_UP_SIZE), assetCache,
+                    powerUpEffects, paddle, windowDimensions.y());
+            strategyFactory = new BrickStrategyFactory(brickRemovalQueue, powerUpDrops, random);
+        }
+        powerUpEffects.reset();
+        powerUpDrops.rearm(gameObjects());
+    }
 
     /**
-     * Creates and places paddle object.
+     * Creates (on first game only) and places paddle object, controlled by the player or by a bot.
      */
     private void initializePaddle() {
-        Renderable paddleImage = imageReader.readImage("assets/paddle.png", true);
-        Paddle paddle = new Paddle(Vector2.ZERO, Vector2.of(PADDLE_SIZE_X, PADDLE_SIZE_Y), paddleImage,
-                inputListener,
-                windowDimensions, MIN_DIST_FROM_EDGE);
+        if (paddle == null) {
+            Renderable paddleImage;
+            PaddleController controller;
+            if (botSkill == null) {
+                paddleImage = assetCache.image(PADDLE_IMAGE, true);
+                controller = new KeyboardController(inputListener);
+            } else {
+                paddleImage = assetCache.image(botSkill == BotSkill.GOOD ? BOT_GOOD_IMAGE : BOT_BAD_IMAGE,
+                        true);
+                controller = new BotController(botSkill, balls, random, windowDimensions.x(), BORDER_WIDTH);
+            }
+            paddle = new Paddle(Vector2.ZERO, Vector2.of(PADDLE_SIZE_X, PADDLE_SIZE_Y), paddleImage,
+                    controller,
+                    windowDimensions, MIN_DIST_FROM_EDGE);
+        }
+        paddle.setVelocity(Vector2.ZERO);
         paddle.setCenter(Vector2.of(windowDimensions.x() / 2,
                 windowDimensions.y() - PADDLE_DIST_FROM_BOTTOM));
         gameObjects().addGameObject(paddle);
@@ -242,27 +759,371 @@ public class BrickerGameManager extends GameManager {
 
 
     /**
-     * Creates and places border that keeps ball in window.
+     * @return Collection of all objects in the game. Exposed for headless tooling and benchmarks.
      */
-    private void initializeWalls() {
-        GameObject wallLeft = new GameObject(Vector2.ZERO, Vector2.of(BORDER_WIDTH, windowDimensions.y()),
-                null);
-        GameObject wallRight = new GameObject(Vector2.of(windowDimensions.x() - BORDER_WIDTH, 0),
-                Vector2.of(BORDER_WIDTH, windowDimensions.y()), null);
-        GameObject wallTop = new GameObject(Vector2.ZERO,
-                Vector2.of(windowDimensions.x(), BORDER_WIDTH), null);
+    @Override
+    public GameObjectCollection gameObjects() {
+        return super.gameObjects();
+    }
 
-        gameObjects().addGameObject(wallLeft);
-        gameObjects().addGameObject(wallRight);
-        gameObjects().addGameObject(wallTop);
+    /**
+     * Enables or disables collision sounds. Takes effect only before the game is first initialized.
+     * @param soundEnabled Whether collisions should be heard.
+     */
+    public void setSoundEnabled(boolean soundEnabled) {
+        this.soundEnabled = soundEnabled;
+    }
+
+    /**
+     * Seeds the game's random generator, so that a session played with the same input is repeated
+     * exactly. Must be called before the game is started.
+     * @param seed Seed for all of the game's random choices.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+    }
+
+    /**
+     * @return Seed of the game's random generator.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Hands the paddle to a bot, so that the game plays itself. Must be called before the game is started.
+     * @param botSkill How well the bot plays, or null for the player to control the paddle.
+     */
+    public void setBotSkill(BotSkill botSkill) {
+        this.botSkill = botSkill;
+    }
+
+    /**
+     * Records every following frame's duration and key states. Must be set before the game is started.
+     * @param sessionRecorder Recorder to be written each frame, or null to stop recording.
+     */
+    public void setSessionRecorder(SessionRecorder sessionRecorder) {
+        this.sessionRecorder = sessionRecorder;
+    }
+
+    /**
+     * Broadcasts every following frame to spectators.
+     * @param spectatorServer Server to publish each frame to, or null to stop broadcasting.
+     */
+    public void setSpectatorServer(SpectatorServer spectatorServer) {
+        this.spectatorServer = spectatorServer;
+        brickGrid.setRemovalListener(spectatorServer == null ? null : spectatorServer::brickRemoved);
+        if (spectatorServer != null) {
+            spectatorServer.requestKeyframe();
+        }
+    }
+
+    /**
+     * @return Number of 64-bit words holding the cells of the game's brick grid.
+     */
+    public int brickGridWords() {
+        return brickGrid.cellsSize() / Long.BYTES;
+    }
+
+    /**
+     * @return Number of bytes a snapshot of the current game takes.
+     */
+    public int snapshotSize() {
+        return SNAPSHOT_HEADER_SIZE + powerUpEffects.stateSize() + powerUpDrops.stateSize() +
+                balls.length * 4 * Float.BYTES + 2 * Float.BYTES +
+                (ballSwarm == null ? Integer.BYTES : ballSwarm.stateSize()) + 2 * Integer.BYTES +
+                brickGrid.cellsSize();
+    }
+
+    /**
+     * @return A snapshot of the current game, in a new buffer ready to be read.
+     */
+    public ByteBuffer saveSnapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(snapshotSize());
+        saveSnapshot(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Packs the state of the game into a buffer: the game's state, lives and random generator, the active
+     * power-up effects and falling power-ups, every ball's position and velocity, the paddle's position,
+     * and one bit per brick cell. Must be called between frames.
+     * @param buffer Buffer with at least snapshotSize() bytes remaining, written from its position.
+     */
+    public void saveSnapshot(ByteBuffer buffer) {
+        if (state == GameState.RESTART) {
+            throw new IllegalStateException("Cannot save a game being reset");
+        }
+        interpolator.restore(); // simulated positions are saved, not drawn ones
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(state.ordinal()).putFloat(stateTime)
+                .putInt(livesCounter.value()).putLong(random.state()).putInt(balls.length);
+        powerUpEffects.writeState(buffer);
+        powerUpDrops.writeState(buffer);
+        for (Ball ball : balls) {
+            buffer.putFloat(ball.getTopLeftCorner().x()).putFloat(ball.getTopLeftCorner().y())
+                    .putFloat(ball.getVelocity().x()).putFloat(ball.getVelocity().y());
+        }
+        buffer.putFloat(paddle.getTopLeftCorner().x()).putFloat(paddle.getTopLeftCorner().y());
+        if (ballSwarm == null) {
+            buffer.putInt(0);
+        } else {
+            ballSwarm.writeState(buffer);
+        }
+        buffer.putInt(brickGrid.bricksPerRow()).putInt(brickGrid.bricksPerColumn());
+        brickGrid.writeCells(buffer);
+    }
+
+    /**
+     * Returns the game to a state saved by saveSnapshot, in place: objects are moved and re-armed, not
+     * rebuilt. Must be called between frames, on a game of the same configuration as the one saved. The
+     * whole snapshot is checked before anything is restored, so a rejected snapshot leaves the game
+     * untouched.
+     * @param buffer Buffer holding a snapshot, read from its position.
+     * @throws IllegalArgumentException If the buffer does not hold a snapshot this game can restore.
+     */
+    public void restoreSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Not a snapshot of this version");
+        }
+        int stateOrdinal = buffer.getInt();
+        if (stateOrdinal < 0 || stateOrdinal >= GameState.values().length ||
+                stateOrdinal == GameState.RESTART.ordinal()) {
+            throw new IllegalArgumentException("Snapshot has no valid game state: " + stateOrdinal);
+        }
+        GameState savedState = GameState.values()[stateOrdinal];
+        float savedStateTime = buffer.getFloat();
+        int lives = buffer.getInt();
+        long randomState = buffer.getLong();
+        if (lives < 0 || lives > MAX_LIVES) {
+            throw new IllegalArgumentException("Snapshot has an invalid number of lives: " + lives);
+        }
+        if (buffer.getInt() != balls.length) {
+            throw new IllegalArgumentException("Snapshot is of a game with a different number of balls");
+        }
+        checkSnapshotBody(buffer.duplicate().order(buffer.order()));
+        random.setState(randomState);
+        interpolator.restore();
+        powerUpEffects.readState(buffer); // before the paddle is placed, as it is resized about its center
+        powerUpDrops.readState(buffer);
+        for (Ball ball : balls) {
+            ball.setTopLeftCorner(Vector2.of(buffer.getFloat(), buffer.getFloat()));
+            ball.setVelocity(Vector2.of(buffer.getFloat(), buffer.getFloat()));
+        }
+        paddle.setTopLeftCorner(Vector2.of(buffer.getFloat(), buffer.getFloat()));
+        paddle.setVelocity(Vector2.ZERO);
+        interpolator.forget(); // the saved positions are not to be drawn sliding from the current ones
+        if (ballSwarm == null) {
+            buffer.getInt(); // empty swarm
+        } else {
+            ballSwarm.readState(buffer);
+        }
+        buffer.position(buffer.position() + 2 * Integer.BYTES); // grid size, checked
+        brickGrid.readCells(buffer);
+        staticLayer.invalidateAll();
+        brickCounter.reset();
+        brickCounter.increaseBy(brickGrid.brickCount());
+        livesCounter.set(lives);
+        if (spectatorServer != null) {
+            spectatorServer.requestKeyframe();
+        }
+        switch (savedState) {
+            case LIFE_LOST:
+                enterState(GameState.LIFE_LOST, LIFE_LOST_PROMPT);
+                break;
+            case GAME_OVER:
+                enterState(GameState.PLAYING);
+                checkGameEnd(); // the prompt follows from the counters
+                break;
+            default:
+                enterState(GameState.PLAYING);
+                break;
+        }
+        stateTime = savedStateTime;
+    }
+
+    /**
+     * Checks that the body of a snapshot, following its header, can be restored into this game.
+     * @param buffer Buffer holding a snapshot, read from the end of its header. Its position is advanced.
+     * @throws IllegalArgumentException If the body is truncated or holds a state this game cannot take.
+     */
+    private void checkSnapshotBody(ByteBuffer buffer) {
+        try {
+            powerUpEffects.checkState(buffer);
+            powerUpDrops.checkState(buffer);
+            buffer.position(buffer.position() + balls.length * 4 * Float.BYTES + 2 * Float.BYTES);
+            if (ballSwarm == null && buffer.getInt(buffer.position()) != 0) {
+                throw new IllegalArgumentException("Snapshot has swarm balls, but the game has no swarm");
+            }
+            BallSwarm.checkState(buffer);
+            if (buffer.getInt() != brickGrid.bricksPerRow() ||
+                    buffer.getInt() != brickGrid.bricksPerColumn()) {
+                throw new IllegalArgumentException("Snapshot is of a game with a different brick grid");
+            }
+            brickGrid.checkCells(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // reading past the limit throws any of these, depending on how the buffer is read.
+            throw new IllegalArgumentException("Invalid snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return Per-frame timing, allocation and collision metrics of the game.
+     */
+    public FrameMetrics getFrameMetrics() {
+        return frameMetrics;
+    }
+
+    /**
+     * @return Current state of the game.
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * @return Cache of the game's decoded assets.
+     */
+    public AssetCache getAssetCache() {
+        return assetCache;
+    }
+
+    /**
+     * @return Grid of the bricks left in the game.
+     */
+    public BrickGrid getBrickGrid() {
+        return brickGrid;
+    }
+
+    /**
+     * @return Queue removing the bricks broken in a frame at its end.
+     */
+    public BrickRemovalQueue getBrickRemovalQueue() {
+        return brickRemovalQueue;
+    }
+
+    /**
+     * @return Power-ups falling towards the paddle.
+     */
+    public PowerUpDrops getPowerUpDrops() {
+        return powerUpDrops;
+    }
+
+    /**
+     * @return Effects of the power-ups caught.
+     */
+    public PowerUpEffects getPowerUpEffects() {
+        return powerUpEffects;
+    }
+
+    /**
+     * @return Balls currently in play.
+     */
+    public Ball[] getBalls() {
+        return balls;
+    }
+
+    /**
+     * Sets the pool on which the ball swarm's physics is stepped in parallel. Results are identical to
+     * stepping on the game thread.
+     * @param physicsPool Pool to step physics on, or null to step it on the game thread only.
+     */
+    public void setPhysicsPool(ForkJoinPool physicsPool) {
+        this.physicsPool = physicsPool;
+        if (ballSwarm != null) {
+            ballSwarm.setPool(physicsPool);
+        }
+    }
+
+    /**
+     * @return Swarm of extra balls, or null if the game has none.
+     */
+    public BallSwarm getBallSwarm() {
+        return ballSwarm;
+    }
+
+    /**
+     * @return Level the game is played on.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The player's paddle.
+     */
+    public Paddle getPaddle() {
+        return paddle;
     }
 
     /**
      * Main function to start game.
-     * @param args
+     * @param args Pass "--headless [frames]" to run the game logic without a window, as fast as possible,
+     *             "--replay file" to replay a recorded session, or any of "--level file" to play a level
+     *             file, "--record file" to record the session to a log, "--bot good|bad" to have a
+     *             bot play the paddle and "--spectate port" to broadcast the game to spectators.
+     * @throws IOException If a level or session log could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(HEADLESS_FLAG)) {
+            HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals(REPLAY_FLAG)) {
+            SessionReplayer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Level level = Level.full(BRICKS_PER_COLUMN, BRICKS_PER_ROW);
+        String recordPath = null;
+        BotSkill botSkill = null;
+        int spectatePort = -1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals(LEVEL_FLAG)) {
+                level = LevelLoader.load(Paths.get(args[i + 1]));
+            } else if (args[i].equals(RECORD_FLAG)) {
+                recordPath = args[i + 1];
+            } else if (args[i].equals(BOT_FLAG)) {
+                botSkill = BotSkill.valueOf(args[i + 1].toUpperCase());
+            } else if (args[i].equals(SPECTATE_FLAG)) {
+                spectatePort = Integer.parseInt(args[i + 1]);
+            }
+        }
+        BrickerGameManager game = new BrickerGameManager(WINDOW_TITLE, WINDOW_DIMENSIONS, level);
+        game.setBotSkill(botSkill);
+        if (recordPath != null) {
+            game.setSessionRecorder(new SessionRecorder(Paths.get(recordPath), game.getSeed(), level,
+                    botSkill));
+        }
+        if (spectatePort >= 0) {
+            SpectatorServer spectatorServer = new SpectatorServer(spectatePort, NUM_BALLS,
+                    game.brickGridWords());
+            game.setSpectatorServer(spectatorServer);
+            System.out.println("Spectators may connect on port " + spectatorServer.port());
+        }
+        game.getFrameMetrics().registerMBean();
+        // in case the process exits without the game loop returning, e.g. on a signal.
+        Runtime.getRuntime().addShutdownHook(new Thread(game::closeSession));
+        game.run();
+        game.closeSession();
+    }
+
+    /**
+     * Completes the session's files: stops recording and closes the session log, and writes the frame
+     * metrics. Also releases the collision sounds' threads and audio lines. Safe to call more than once,
+     * and from a thread other than the game's.
      */
-    public static void main(String[] args) {
-        new BrickerGameManager("Bricker",
-                new Vector2(700, 500)).run();
+    private void closeSession() {
+        if (soundMixer != null) {
+            soundMixer.close();
+        }
+        try {
+            if (sessionRecorder != null) {
+                sessionRecorder.close();
+            }
+            frameMetrics.writeCsv(Paths.get(METRICS_CSV));
+        } catch (IOException e) {
+            System.err.println("Could not write session files: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,16 @@
+package src;
+
+/**
+ * States of a Bricker game. The frame loop keeps running in every state; only while playing are the game
+ * objects moved.
+ */
+public enum GameState {
+    /** Balls and paddle are in motion. */
+    PLAYING,
+    /** A life was lost, and the game waits for the player to continue. */
+    LIFE_LOST,
+    /** The game was won or lost, and the player is asked whether to play again. */
+    GAME_OVER,
+    /** The player chose to play again, and the game is about to be reset. */
+    RESTART
+}
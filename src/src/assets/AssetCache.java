@@ -0,0 +1,105 @@
+package src.assets;
+
+import danogl.gui.ImageReader;
+import danogl.gui.rendering.Renderable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of decoded images, handing out one shared instance per image. Outlives game resets, so
+ * images are decoded once per run rather than once per object or per game. Images are keyed by path,
+ * in a separate map per transparency flag, so that looking one up allocates nothing. When full, the least
+ * recently used image of the map being added to is evicted, or of the other map if the new image is
+ * alone in its own.
+ */
+public class AssetCache {
+
+    private final int capacity;
+    private final Map<String, Renderable> opaqueImages;
+    private final Map<String, Renderable> transparentImages;
+    private ImageReader imageReader;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Construct a new, empty asset cache.
+     * @param capacity Maximal number of images to hold at once.
+     */
+    public AssetCache(int capacity) {
+        this.capacity = capacity;
+        opaqueImages = new LinkedHashMap<>(capacity, 0.75f, true); // access order, for LRU eviction
+        transparentImages = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    /**
+     * Sets the reader used to decode images that are not yet cached. Images already cached are kept.
+     * @param imageReader Object to read images with.
+     */
+    public void setImageReader(ImageReader imageReader) {
+        this.imageReader = imageReader;
+    }
+
+    /**
+     * @param path Path of image file.
+     * @param useTopLeftPixelAsTransparentColor See ImageReader.readImage.
+     * @return Shared renderable of the image, decoding it if it is not cached.
+     */
+    public Renderable image(String path, boolean useTopLeftPixelAsTransparentColor) {
+        Map<String, Renderable> images = useTopLeftPixelAsTransparentColor ? transparentImages : opaqueImages;
+        Renderable image = images.get(path);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = imageReader.readImage(path, useTopLeftPixelAsTransparentColor);
+        images.put(path, image);
+        if (size() > capacity) {
+            // the image just added is the eldest of its map if it is alone there, and must be kept
+            Map<String, Renderable> victims = images.size() > 1 ? images
+                    : images == opaqueImages ? transparentImages : opaqueImages;
+            Iterator<Renderable> eldest = victims.values().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+        return image;
+    }
+
+    /**
+     * @return Number of requests answered from the cache.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of requests that had to decode an image.
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of images evicted to stay within capacity.
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of images currently cached.
+     */
+    public int size() {
+        return opaqueImages.size() + transparentImages.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AssetCache[size=%d/%d, hits=%d, misses=%d, evictions=%d]", size(), capacity,
+                hits, misses, evictions);
+    }
+}
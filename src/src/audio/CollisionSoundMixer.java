@@ -0,0 +1,133 @@
+package src.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Plays a collision sound off the game thread. The sound is decoded to PCM once and kept in memory. All
+ * triggers within a frame are merged into a single playback, and no more than a fixed number of
+ * playbacks sound at once; triggers beyond that are dropped rather than queued.
+ */
+public class CollisionSoundMixer {
+
+    private final byte[] pcm;
+    private final AudioFormat format;
+    private final Semaphore freeVoices;
+    private final BlockingQueue<SourceDataLine> idleLines; // opened lines, reused between playbacks
+    private final ExecutorService player;
+    private boolean triggered = false;
+    private volatile boolean closed = false; // set from any thread, e.g. a shutdown hook
+
+    /**
+     * Construct a mixer for the given sound.
+     * @param soundFilePath Path of sound file, in any format javax.sound.sampled can decode.
+     * @param maxVoices Maximal number of playbacks sounding at once.
+     * @throws IOException If the file cannot be read.
+     * @throws UnsupportedAudioFileException If the file's format cannot be decoded to PCM.
+     */
+    public CollisionSoundMixer(String soundFilePath, int maxVoices)
+            throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream encoded = AudioSystem.getAudioInputStream(new File(soundFilePath))) {
+            AudioFormat source = encoded.getFormat();
+            format = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, source.getSampleRate(), 16,
+                    source.getChannels(), source.getChannels() * 2, source.getSampleRate(), false);
+            try (AudioInputStream decoded = AudioSystem.getAudioInputStream(format, encoded)) {
+                pcm = decoded.readAllBytes();
+            } catch (IllegalArgumentException e) { // no converter from the file's encoding to PCM
+                throw new UnsupportedAudioFileException("Cannot decode " + soundFilePath + " to PCM: "
+                        + e.getMessage());
+            }
+        }
+        freeVoices = new Semaphore(maxVoices);
+        idleLines = new ArrayBlockingQueue<>(maxVoices);
+        player = Executors.newFixedThreadPool(maxVoices, runnable -> {
+            Thread thread = new Thread(runnable, "collision-sound");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests the sound to be played at the end of the current frame. Called from the game thread.
+     */
+    public void trigger() {
+        triggered = true;
+    }
+
+    /**
+     * Plays the sound once if it was triggered during the frame, unless all voices are busy. Called from
+     * the game thread at the end of every frame; never blocks it.
+     */
+    public void endFrame() {
+        if (!triggered) {
+            return;
+        }
+        triggered = false;
+        if (!closed && freeVoices.tryAcquire()) {
+            try {
+                player.execute(this::play);
+            } catch (RejectedExecutionException e) { // closed since the check
+                freeVoices.release();
+            }
+        }
+    }
+
+    /**
+     * Stops playback threads and releases audio lines. May be called from any thread while the game still
+     * runs; sounds triggered afterwards stay silent. Closing again does nothing.
+     */
+    public void close() {
+        closed = true;
+        player.shutdownNow();
+        closeIdleLines();
+    }
+
+    /**
+     * Closes every idle line.
+     */
+    private void closeIdleLines() {
+        SourceDataLine line;
+        while ((line = idleLines.poll()) != null) {
+            line.close();
+        }
+    }
+
+    /**
+     * Plays the sound on a player thread, on an idle line if there is one.
+     */
+    private void play() {
+        try {
+            SourceDataLine line = idleLines.poll();
+            if (line == null) {
+                line = AudioSystem.getSourceDataLine(format);
+                line.open(format);
+            }
+            line.start();
+            line.write(pcm, 0, pcm.length);
+            line.drain();
+            line.stop();
+            if (!idleLines.offer(line)) {
+                line.close();
+            }
+            if (closed) { // close may have closed the idle lines before this one was offered back
+                closeIdleLines();
+            }
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // no audio device; the collision simply stays silent.
+        } finally {
+            freeVoices.release();
+        }
+    }
+}
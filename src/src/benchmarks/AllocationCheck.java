@@ -0,0 +1,145 @@
+package src.benchmarks;
+
+import danogl.util.Vector2;
+import src.BrickerGameManager;
+import src.GameState;
+import src.gameobjects.Ball;
+import src.gameobjects.Paddle;
+import src.headless.HeadlessRunner;
+import src.paddle_controllers.BotSkill;
+import src.util.PositionInterpolator;
+
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks, using the JVM's per-thread allocation counter, that the game's own per-frame hot paths allocate
+ * nothing once warmed up, and reports what whole frames allocate. Exits with a non-zero status if any of
+ * the hot paths allocates.
+ * <p>
+ * Whole frames of play are measured one by one, split into steady-state frames, in which nothing happens
+ * but balls and the paddle moving and bouncing, and frames with events (a brick broken, a life lost, a
+ * power-up caught or expiring). Both are reported only: every frame runs the engine's update of its
+ * objects, which moves them through immutable Vector2s and so allocates outside the game's control.
+ */
+public class AllocationCheck {
+
+    private static final int WARMUP_ITERATIONS = 20_000; // enough for the JIT to compile the hot paths
+    private static final int MEASURED_ITERATIONS = 10_000;
+    private static final int NUM_BALLS = 10;
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+    private boolean failed = false;
+
+    /**
+     * Measures the bytes allocated by an operation, after warming it up.
+     * @param name Name of operation, for the report.
+     * @param operation Operation to be measured.
+     * @param mustNotAllocate Whether allocation by the operation fails the check.
+     */
+    private void check(String name, Runnable operation, boolean mustNotAllocate) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        report(name, allocated, MEASURED_ITERATIONS, mustNotAllocate);
+    }
+
+    /**
+     * Plays a game and reports the bytes allocated by its updates after warming it up, separately for frames
+     * with and without events.
+     * @param scenario Game to be played, with a bot so that it goes on.
+     */
+    private void reportUpdate(BenchmarkScenario scenario) {
+        BrickerGameManager gameManager = scenario.gameManager();
+        HeadlessRunner runner = scenario.runner();
+        runner.run(WARMUP_ITERATIONS);
+        long steadyBytes = 0;
+        long eventBytes = 0;
+        int steadyFrames = 0;
+        int eventFrames = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            GameState state = gameManager.getState();
+            int bricks = gameManager.getBrickGrid().brickCount();
+            int drops = gameManager.getPowerUpDrops().size();
+            int effects = gameManager.getPowerUpEffects().activeCount();
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            runner.step();
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+            boolean steady = state == GameState.PLAYING && gameManager.getState() == GameState.PLAYING
+                    && gameManager.getBrickGrid().brickCount() == bricks
+                    && gameManager.getPowerUpDrops().size() == drops
+                    && gameManager.getPowerUpEffects().activeCount() == effects;
+            if (steady) {
+                steadyBytes += allocated;
+                steadyFrames++;
+            } else {
+                eventBytes += allocated;
+                eventFrames++;
+            }
+        }
+        report("update, steady state", steadyBytes, steadyFrames, false);
+        report("update, with events", eventBytes, eventFrames, false);
+    }
+
+    /**
+     * Prints a measurement, and fails the check if bytes that must not be allocated were.
+     * @param name Name of operation.
+     * @param allocated Bytes allocated over all measured operations.
+     * @param operations Number of operations measured.
+     * @param mustNotAllocate Whether allocation by the operation fails the check.
+     */
+    private void report(String name, long allocated, int operations, boolean mustNotAllocate) {
+        boolean ok = !mustNotAllocate || allocated == 0;
+        failed |= !ok;
+        System.out.printf("%-24s %8d ops %10.2f bytes/op  %s%n", name, operations,
+                operations == 0 ? 0 : (double) allocated / operations,
+                ok ? (mustNotAllocate ? "OK" : "(reported only)") : "FAIL");
+    }
+
+    /**
+     * Runs the check.
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        AllocationCheck check = new AllocationCheck();
+        if (!check.threadBean.isThreadAllocatedMemorySupported()) {
+            System.out.println("Per-thread allocation counters are not supported by this JVM.");
+            return;
+        }
+        check.threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        check.reportUpdate(new BenchmarkScenario(8, 5, NUM_BALLS, 0, BotSkill.GOOD));
+
+        BenchmarkScenario scenario = new BenchmarkScenario(8, 5, NUM_BALLS);
+        BrickerGameManager gameManager = scenario.gameManager();
+        scenario.runner().inputListener().press(KeyEvent.VK_LEFT);
+        Paddle paddle = gameManager.getPaddle();
+        Ball[] balls = gameManager.getBalls();
+        // includes the engine's move of the paddle.
+        check.check("Paddle.update", () -> paddle.update(HeadlessRunner.FIXED_DELTA_TIME), false);
+        check.check("Ball.bounce", () -> {
+            for (Ball ball : balls) {
+                ball.bounce(Vector2.UP);
+            }
+        }, true);
+        PositionInterpolator interpolator = new PositionInterpolator();
+        interpolator.track(balls);
+        // frames keeping pace with steps, as in headless runs, where the objects are drawn as simulated.
+        check.check("PositionInterpolator", () -> {
+            interpolator.restore();
+            interpolator.beforeStep();
+            interpolator.interpolate(0);
+        }, true);
+
+        if (check.failed) {
+            System.exit(1);
+        }
+    }
+}
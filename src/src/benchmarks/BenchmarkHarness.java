@@ -0,0 +1,113 @@
+package src.benchmarks;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal timing harness for the Bricker benchmarks. Each benchmark is warmed up for a fixed time so the
+ * JIT settles, then measured for a fixed time, and the mean time per operation is reported. Invocations
+ * are timed in batches, sized during warmup so that the clock's own cost does not count. Every benchmark
+ * returns a result, which the harness consumes so that the JIT cannot eliminate the work.
+ */
+public class BenchmarkHarness {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final long MIN_BATCH_NANOS = 100_000; // far above System.nanoTime's cost and granularity
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final String filter;
+    private long sink = 0; // consumes benchmark results
+
+    /**
+     * Construct a new harness.
+     * @param warmupMillis Time to run each benchmark before measuring it.
+     * @param measureMillis Time to measure each benchmark for.
+     * @param filter Only benchmarks whose name contains this string are run. Empty string runs all.
+     */
+    public BenchmarkHarness(long warmupMillis, long measureMillis, String filter) {
+        this.warmupNanos = warmupMillis * NANOS_PER_MILLI;
+        this.measureNanos = measureMillis * NANOS_PER_MILLI;
+        this.filter = filter;
+    }
+
+    /**
+     * @param name Name of a benchmark.
+     * @return true if the benchmark is selected by the harness' filter.
+     */
+    public boolean isSelected(String name) {
+        return name.contains(filter);
+    }
+
+    /**
+     * Warms up and measures a single benchmark, and prints the result.
+     * @param name Name of benchmark.
+     * @param params Description of the parameters benchmark was run with.
+     * @param setup Run (untimed) before every batch of invocations of the operation.
+     * @param operation Operation to be measured, returning a value that depends on the work it did.
+     * @param opsPerInvocation Number of operations performed by each invocation of operation.
+     */
+    public void measure(String name, String params, Runnable setup, LongSupplier operation,
+                        int opsPerInvocation) {
+        measure(name, params, setup, operation, opsPerInvocation, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Warms up and measures a single benchmark whose operation can only be invoked a limited number of
+     * times after each setup, and prints the result.
+     * @param name Name of benchmark.
+     * @param params Description of the parameters benchmark was run with.
+     * @param setup Run (untimed) before every batch of invocations of the operation.
+     * @param operation Operation to be measured, returning a value that depends on the work it did.
+     * @param opsPerInvocation Number of operations performed by each invocation of operation.
+     * @param maxBatchSize Maximal number of invocations of operation after a single setup.
+     */
+    public void measure(String name, String params, Runnable setup, LongSupplier operation,
+                        int opsPerInvocation, int maxBatchSize) {
+        if (!isSelected(name)) {
+            return;
+        }
+        int batchSize = warmUp(setup, operation, maxBatchSize);
+        long[] result = runFor(measureNanos, setup, operation, batchSize);
+        double nanosPerOp = (double) result[0] / (result[1] * opsPerInvocation);
+        System.out.printf("%-28s %-32s %14.1f ns/op%n", name, params, nanosPerOp);
+    }
+
+    /**
+     * Runs operation for the warmup time, growing the batch size until a batch takes long enough that
+     * the clock's overhead and granularity are negligible.
+     * @return Number of invocations to time together.
+     */
+    private int warmUp(Runnable setup, LongSupplier operation, int maxBatchSize) {
+        int batchSize = 1;
+        long spent = 0;
+        while (spent < warmupNanos) {
+            long[] batch = runFor(0, setup, operation, batchSize);
+            spent += batch[0];
+            if (batch[0] < MIN_BATCH_NANOS && batchSize <= maxBatchSize / 2) {
+                batchSize *= 2;
+            }
+        }
+        return batchSize;
+    }
+
+    /**
+     * Runs batches of invocations of operation, each after a setup and timed as a whole, until the timed
+     * total exceeds the given budget. At least one batch is run.
+     * @return Pair of total timed nanoseconds and number of invocations.
+     */
+    private long[] runFor(long budgetNanos, Runnable setup, LongSupplier operation, int batchSize) {
+        long timed = 0;
+        long invocations = 0;
+        long results = 0;
+        do {
+            setup.run();
+            long start = System.nanoTime();
+            for (int i = 0; i < batchSize; i++) {
+                results += operation.getAsLong();
+            }
+            timed += System.nanoTime() - start;
+            invocations += batchSize;
+        } while (timed < budgetNanos);
+        sink ^= results; // stored where the JIT cannot prove it unread
+        return new long[]{timed, invocations};
+    }
+}
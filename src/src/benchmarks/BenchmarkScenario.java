@@ -0,0 +1,90 @@
+package src.benchmarks;
+
+import src.BrickerGameManager;
+import src.headless.HeadlessRunner;
+import src.paddle_controllers.BotSkill;
+
+/**
+ * A headless Bricker game with a given brick grid and number of balls, ready to be benchmarked.
+ */
+public class BenchmarkScenario {
+
+    private final int bricksPerRow;
+    private final int bricksPerColumn;
+    private final int numBalls;
+    private final int numSwarmBalls;
+    private final BotSkill botSkill;
+    private final BrickerGameManager gameManager;
+    private final HeadlessRunner runner;
+
+    /**
+     * Create and initialize a new scenario.
+     * @param bricksPerRow Number of bricks in each row of the grid.
+     * @param bricksPerColumn Number of bricks in each column of the grid.
+     * @param numBalls Number of balls in play.
+     */
+    public BenchmarkScenario(int bricksPerRow, int bricksPerColumn, int numBalls) {
+        this(bricksPerRow, bricksPerColumn, numBalls, 0);
+    }
+
+    /**
+     * Create and initialize a new scenario with a swarm of extra balls.
+     * @param bricksPerRow Number of bricks in each row of the grid.
+     * @param bricksPerColumn Number of bricks in each column of the grid.
+     * @param numBalls Number of balls in play.
+     * @param numSwarmBalls Number of balls in the swarm.
+     */
+    public BenchmarkScenario(int bricksPerRow, int bricksPerColumn, int numBalls, int numSwarmBalls) {
+        this(bricksPerRow, bricksPerColumn, numBalls, numSwarmBalls, null);
+    }
+
+    /**
+     * Create and initialize a new scenario with a swarm of extra balls, and a bot playing the paddle.
+     * @param bricksPerRow Number of bricks in each row of the grid.
+     * @param bricksPerColumn Number of bricks in each column of the grid.
+     * @param numBalls Number of balls in play.
+     * @param numSwarmBalls Number of balls in the swarm.
+     * @param botSkill Skill of the bot playing the paddle, or null for a paddle that stands still unless
+     *                 keys are pressed.
+     */
+    public BenchmarkScenario(int bricksPerRow, int bricksPerColumn, int numBalls, int numSwarmBalls,
+                             BotSkill botSkill) {
+        this.bricksPerRow = bricksPerRow;
+        this.bricksPerColumn = bricksPerColumn;
+        this.numBalls = numBalls;
+        this.numSwarmBalls = numSwarmBalls;
+        this.botSkill = botSkill;
+        gameManager = new BrickerGameManager(BrickerGameManager.WINDOW_TITLE,
+                BrickerGameManager.WINDOW_DIMENSIONS, bricksPerRow, bricksPerColumn, numBalls, numSwarmBalls);
+        gameManager.setBotSkill(botSkill); // the paddle's controller is chosen when the game starts
+        runner = new HeadlessRunner(gameManager, BrickerGameManager.WINDOW_DIMENSIONS, true);
+        runner.start();
+    }
+
+    /**
+     * @return Game being benchmarked.
+     */
+    public BrickerGameManager gameManager() {
+        return gameManager;
+    }
+
+    /**
+     * @return Runner stepping the game.
+     */
+    public HeadlessRunner runner() {
+        return runner;
+    }
+
+    /**
+     * Rebuilds the game from scratch, as a reset would.
+     */
+    public void restart() {
+        runner.start();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("grid=%dx%d balls=%d swarm=%d%s", bricksPerRow, bricksPerColumn, numBalls,
+                numSwarmBalls, botSkill == null ? "" : " bot=" + botSkill.name().toLowerCase());
+    }
+}
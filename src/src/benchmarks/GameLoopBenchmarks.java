@@ -0,0 +1,202 @@
+package src.benchmarks;
+
+import danogl.util.Vector2;
+import src.BrickerGameManager;
+import src.brick_strategies.BrickRemovalQueue;
+import src.collisions.BrickGrid;
+import src.gameobjects.Ball;
+import src.gameobjects.BallSwarm;
+import src.gameobjects.Brick;
+import src.gameobjects.Paddle;
+import src.headless.HeadlessRunner;
+
+import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks for the per-frame hot paths of Bricker, each parameterized by brick-grid size and number
+ * of balls. Run with a large heap (e.g. -Xmx4g) for the biggest grids.
+ */
+public class GameLoopBenchmarks {
+
+    private static final int[][] GRID_SIZES = {{8, 5}, {100, 100}, {1000, 1000}};
+    private static final int[] BALL_COUNTS = {1, 10, 100};
+    private static final int[] SWARM_SIZES = {100, 1000, 10_000};
+    private static final int PARALLEL_SWARM_SIZE = 100_000;
+    private static final int MAX_BRICKS_REMOVED = 1000; // removed per invocation of removal benchmark
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 1000;
+
+    private final BenchmarkHarness harness;
+
+    /**
+     * Construct the benchmark suite.
+     * @param harness Harness to measure benchmarks with.
+     */
+    public GameLoopBenchmarks(BenchmarkHarness harness) {
+        this.harness = harness;
+    }
+
+    /**
+     * Runs every benchmark for every combination of parameters.
+     */
+    public void runAll() {
+        for (int[] gridSize : GRID_SIZES) {
+            for (int numBalls : BALL_COUNTS) {
+                BenchmarkScenario scenario = new BenchmarkScenario(gridSize[0], gridSize[1], numBalls);
+                frameUpdate(scenario);
+                ballCollision(scenario);
+                paddleUpdate(scenario);
+                brickRemoval(scenario);
+                snapshotRoundTrip(scenario);
+            }
+            for (int swarmSize : SWARM_SIZES) {
+                swarmUpdate(new BenchmarkScenario(gridSize[0], gridSize[1], 1, swarmSize));
+            }
+            parallelSwarmUpdate(gridSize);
+        }
+    }
+
+    /**
+     * One whole BrickerGameManager.update frame.
+     */
+    private void frameUpdate(BenchmarkScenario scenario) {
+        HeadlessRunner runner = scenario.runner();
+        harness.measure("frameUpdate", scenario.toString(), () -> { }, () -> runner.step() ? 1 : 0, 1);
+    }
+
+    /**
+     * Ball collision response, for every ball in play.
+     */
+    private void ballCollision(BenchmarkScenario scenario) {
+        Ball[] balls = scenario.gameManager().getBalls();
+        harness.measure("ballOnCollisionEnter", scenario.toString(), () -> { }, () -> {
+            long versions = 0;
+            for (Ball ball : balls) {
+                ball.bounce(Vector2.UP);
+                versions += ball.velocityVersion();
+            }
+            return versions;
+        }, balls.length);
+    }
+
+    /**
+     * Paddle update, with the paddle held moving right.
+     */
+    private void paddleUpdate(BenchmarkScenario scenario) {
+        scenario.runner().inputListener().press(KeyEvent.VK_RIGHT);
+        Paddle paddle = scenario.gameManager().getPaddle();
+        harness.measure("paddleUpdate", scenario.toString(), () -> { }, () -> {
+            paddle.update(HeadlessRunner.FIXED_DELTA_TIME);
+            return Float.floatToRawIntBits(paddle.getTopLeftCorner().x());
+        }, 1);
+        scenario.runner().inputListener().releaseAll();
+    }
+
+    /**
+     * Brick hits, each removing the brick from the grid, materializing it and queuing it for removal
+     * through its CollisionStrategy, followed by the end-of-frame removal of all of them. The game is
+     * rebuilt (untimed) before every batch, whose invocations break the grid's bricks in order.
+     */
+    private void brickRemoval(BenchmarkScenario scenario) {
+        if (!harness.isSelected("brickRemoval")) {
+            return;
+        }
+        int[] nextCell = new int[1];
+        Runnable setup = () -> {
+            scenario.restart();
+            nextCell[0] = 0;
+        };
+        setup.run(); // the grid is full only in a new game
+        BrickGrid brickGrid = scenario.gameManager().getBrickGrid();
+        int numCells = brickGrid.bricksPerRow() * brickGrid.bricksPerColumn();
+        int bricksPerInvocation = Math.min(MAX_BRICKS_REMOVED, brickGrid.brickCount());
+        Ball[] balls = scenario.gameManager().getBalls(); // refilled from the ball pool by every restart
+        BrickRemovalQueue removalQueue = scenario.gameManager().getBrickRemovalQueue();
+        harness.measure("brickRemoval", scenario.toString(), setup, () -> {
+            int removed = 0;
+            int cell = nextCell[0];
+            for (; cell < numCells && removed < bricksPerInvocation; cell++) {
+                Brick brick = brickGrid.removeAt(cell); // materializes the brick, as a ball hitting it would
+                if (brick != null) {
+                    brick.onHit(balls[0]);
+                    removed++;
+                }
+            }
+            nextCell[0] = cell;
+            return removalQueue.flush();
+        }, bricksPerInvocation, brickGrid.brickCount() / bricksPerInvocation);
+    }
+
+    /**
+     * Saving the whole game state into a snapshot buffer, and restoring the game from it in place.
+     */
+    private void snapshotRoundTrip(BenchmarkScenario scenario) {
+        if (!harness.isSelected("snapshotRoundTrip")) {
+            return;
+        }
+        BrickerGameManager gameManager = scenario.gameManager();
+        ByteBuffer buffer = ByteBuffer.allocate(gameManager.snapshotSize());
+        harness.measure("snapshotRoundTrip", scenario.toString(), () -> { }, () -> {
+            buffer.clear();
+            gameManager.saveSnapshot(buffer);
+            buffer.flip();
+            gameManager.restoreSnapshot(buffer);
+            return buffer.position();
+        }, 1);
+    }
+
+    /**
+     * One update of the ball swarm, moving and bouncing all of its balls. The game is rebuilt (untimed)
+     * before a batch of updates whenever the swarm has lost half of its balls.
+     */
+    private void swarmUpdate(BenchmarkScenario scenario) {
+        BallSwarm swarm = scenario.gameManager().getBallSwarm();
+        int fullSize = swarm.size();
+        harness.measure("swarmUpdate", scenario.toString(), () -> {
+            if (swarm.size() < fullSize / 2) {
+                scenario.restart();
+            }
+        }, () -> {
+            swarm.update(HeadlessRunner.FIXED_DELTA_TIME);
+            return swarm.size();
+        }, 1);
+    }
+
+    /**
+     * Swarm update with physics stepped on pools of increasing size, to show scaling with core count.
+     */
+    private void parallelSwarmUpdate(int[] gridSize) {
+        if (!harness.isSelected("parallelSwarmUpdate")) {
+            return;
+        }
+        BenchmarkScenario scenario = new BenchmarkScenario(gridSize[0], gridSize[1], 1,
+                PARALLEL_SWARM_SIZE);
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            scenario.gameManager().setPhysicsPool(pool);
+            BallSwarm swarm = scenario.gameManager().getBallSwarm();
+            harness.measure("parallelSwarmUpdate", scenario + " threads=" + threads, () -> {
+                if (swarm.size() < PARALLEL_SWARM_SIZE / 2) {
+                    scenario.restart();
+                }
+            }, () -> {
+                swarm.update(HeadlessRunner.FIXED_DELTA_TIME);
+                return swarm.size();
+            }, 1);
+            pool.shutdown();
+        }
+        scenario.gameManager().setPhysicsPool(null);
+    }
+
+    /**
+     * Runs the benchmark suite.
+     * @param args Optional substring; only benchmarks whose name contains it are run.
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        new GameLoopBenchmarks(new BenchmarkHarness(WARMUP_MILLIS, MEASURE_MILLIS, filter)).runAll();
+    }
+}
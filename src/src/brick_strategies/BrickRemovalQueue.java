@@ -0,0 +1,76 @@
+package src.brick_strategies;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Counter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Collects the bricks broken during a frame's collisions and removes them all at once at the end of the
+ * frame. A brick broken several times in one frame, e.g. by two balls, is removed and counted only once.
+ */
+public class BrickRemovalQueue {
+
+    private final List<GameObject> pending = new ArrayList<>();
+    private final Set<GameObject> pendingSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Counter brickCounter;
+    private final Consumer<GameObject> recycler;
+    private GameObjectCollection gameObjectCollection;
+
+    /**
+     * Construct a new, empty removal queue.
+     * @param brickCounter Counter of existing bricks, decremented once per brick removed.
+     * @param recycler Receives each brick once it has been removed from the game, e.g. to return it to its
+     *                 pool.
+     */
+    public BrickRemovalQueue(Counter brickCounter, Consumer<GameObject> recycler) {
+        this.brickCounter = brickCounter;
+        this.recycler = recycler;
+    }
+
+    /**
+     * Re-arms the queue for a new game, dropping anything still pending.
+     * @param gameObjectCollection Collection of objects of the new game, bricks are removed from.
+     */
+    public void rearm(GameObjectCollection gameObjectCollection) {
+        this.gameObjectCollection = gameObjectCollection;
+        pending.clear();
+        pendingSet.clear();
+    }
+
+    /**
+     * Queues a brick for removal at the end of the frame.
+     * @param brick Brick broken.
+     * @return false if the brick was already queued this frame.
+     */
+    public boolean enqueue(GameObject brick) {
+        if (!pendingSet.add(brick)) {
+            return false;
+        }
+        pending.add(brick);
+        return true;
+    }
+
+    /**
+     * Removes every brick queued this frame from the game, and decrements the brick counter for each.
+     * @return Number of bricks removed.
+     */
+    public int flush() {
+        int removed = pending.size();
+        for (GameObject brick : pending) {
+            gameObjectCollection.removeGameObject(brick, Layer.STATIC_OBJECTS);
+            brickCounter.decrement();
+            recycler.accept(brick);
+        }
+        pending.clear();
+        pendingSet.clear();
+        return removed;
+    }
+}
@@ -0,0 +1,45 @@
+package src.brick_strategies;
+
+import src.power_ups.PowerUpDrops;
+import src.power_ups.PowerUpType;
+
+import java.util.Random;
+
+/**
+ * Chooses the strategy of each brick. Strategies hold no per-brick state, so a single instance of each is
+ * shared by all the bricks using it.
+ */
+public class BrickStrategyFactory {
+
+    private static final float POWER_UP_CHANCE = 0.2f;
+
+    private final CollisionStrategy basicStrategy;
+    private final CollisionStrategy[] powerUpStrategies;
+    private final Random random;
+
+    /**
+     * Construct a new strategy factory.
+     * @param removalQueue Queue removing broken bricks at the end of the frame.
+     * @param drops Falling power-ups, bricks' power-ups are added to.
+     * @param random Source of the strategies' random choice.
+     */
+    public BrickStrategyFactory(BrickRemovalQueue removalQueue, PowerUpDrops drops, Random random) {
+        this.basicStrategy = new CollisionStrategy(removalQueue);
+        PowerUpType[] types = PowerUpType.values();
+        powerUpStrategies = new CollisionStrategy[types.length];
+        for (int i = 0; i < types.length; i++) {
+            powerUpStrategies[i] = new PowerUpStrategy(removalQueue, drops, types[i]);
+        }
+        this.random = random;
+    }
+
+    /**
+     * @return Strategy for a brick: usually the basic one, sometimes one dropping a random power-up.
+     */
+    public CollisionStrategy next() {
+        if (random.nextFloat() >= POWER_UP_CHANCE) {
+            return basicStrategy;
+        }
+        return powerUpStrategies[random.nextInt(powerUpStrategies.length)];
+    }
+}
@@ -1,24 +1,39 @@
 package src.brick_strategies;
 
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
-import danogl.util.Counter;
 
 /**
- *
+ * Basic behaviour of a brick upon collision: the brick is queued for removal from the game.
  */
 public class CollisionStrategy {
 
-    private GameObjectCollection gameObjectCollection;
+    private final BrickRemovalQueue removalQueue;
 
-    public CollisionStrategy(GameObjectCollection gameObjectCollection) {
+    /**
+     * Construct a new collision strategy.
+     * @param removalQueue Queue removing broken bricks at the end of the frame.
+     */
+    public CollisionStrategy(BrickRemovalQueue removalQueue) {
 
-        this.gameObjectCollection = gameObjectCollection;
+        this.removalQueue = removalQueue;
     }
 
+    /**
+     * Called when a brick collides with another object.
+     * @param thisObj The brick.
+     * @param otherObj The object that hit the brick.
+     */
     public void onCollision(GameObject thisObj, GameObject otherObj) {
 
-        gameObjectCollection.removeGameObject(thisObj, Layer.STATIC_OBJECTS);
+        breakBrick(thisObj);
+    }
+
+    /**
+     * Queues a brick for removal at the end of the frame.
+     * @param brick The brick.
+     * @return false if the brick was already broken this frame.
+     */
+    protected boolean breakBrick(GameObject brick) {
+        return removalQueue.enqueue(brick);
     }
 }
@@ -0,0 +1,39 @@
+package src.brick_strategies;
+
+import danogl.GameObject;
+import src.power_ups.PowerUpDrops;
+import src.power_ups.PowerUpType;
+
+/**
+ * Behaviour of a brick that drops a power-up when broken, on top of being removed.
+ */
+public class PowerUpStrategy extends CollisionStrategy {
+
+    private final PowerUpDrops drops;
+    private final PowerUpType type;
+
+    /**
+     * Construct a new power-up strategy.
+     * @param removalQueue Queue removing broken bricks at the end of the frame.
+     * @param drops Falling power-ups, the brick's power-up is added to.
+     * @param type Kind of power-up the brick drops.
+     */
+    public PowerUpStrategy(BrickRemovalQueue removalQueue, PowerUpDrops drops, PowerUpType type) {
+        super(removalQueue);
+        this.drops = drops;
+        this.type = type;
+    }
+
+    /**
+     * Called when a brick collides with another object. The power-up is dropped only once, by the hit that
+     * breaks the brick.
+     * @param thisObj The brick.
+     * @param otherObj The object that hit the brick.
+     */
+    @Override
+    public void onCollision(GameObject thisObj, GameObject otherObj) {
+        if (breakBrick(thisObj)) {
+            drops.spawn(type, thisObj.getCenter());
+        }
+    }
+}
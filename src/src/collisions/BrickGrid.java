@@ -0,0 +1,352 @@
+package src.collisions;
+
+import danogl.util.Vector2;
+import src.gameobjects.Ball;
+import src.gameobjects.Brick;
+import src.levels.Level;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Uniform grid holding the bricks of the game. Since bricks are laid out on a regular grid, the cells a
+ * ball overlaps are found directly from its coordinates, so testing a ball against the bricks costs the
+ * same however many bricks there are.
+ * <p>
+ * Bricks are held as packed cell bits, not objects. A brick object is materialized only when a ball
+ * breaks it, so memory grows with the bricks in play at once rather than with the size of the level.
+ */
+public class BrickGrid {
+
+    /** Returned by findHit when no brick is overlapped. */
+    public static final int NO_HIT = -1;
+
+    private final float originX;
+    private final float originY;
+    private final int bricksPerRow;
+    private final int bricksPerColumn;
+    private final float brickWidth;
+    private final float brickHeight;
+    private final float cellWidth; // brick plus clearance
+    private final float cellHeight;
+    private final long[] occupied; // row-major cell bits, set where there is a brick
+    private IntFunction<Brick> materializer;
+    private IntConsumer removalListener = null;
+    private int brickCount = 0;
+
+    /**
+     * Construct a new, empty brick grid.
+     * @param topLeftCorner Position of the top-left brick of the grid, in window coordinates.
+     * @param bricksPerRow Number of bricks in each row.
+     * @param bricksPerColumn Number of bricks in each column.
+     * @param brickWidth Width of a single brick.
+     * @param brickHeight Height of a single brick.
+     * @param clearance Distance between neighbouring bricks.
+     * @throws IllegalArgumentException If the grid has more than Level.MAX_CELLS cells, as int cell
+     *                                  indices would overflow.
+     */
+    public BrickGrid(Vector2 topLeftCorner, int bricksPerRow, int bricksPerColumn, float brickWidth,
+                     float brickHeight, float clearance) {
+        this.originX = topLeftCorner.x();
+        this.originY = topLeftCorner.y();
+        this.bricksPerRow = bricksPerRow;
+        this.bricksPerColumn = bricksPerColumn;
+        this.brickWidth = brickWidth;
+        this.brickHeight = brickHeight;
+        this.cellWidth = brickWidth + clearance;
+        this.cellHeight = brickHeight + clearance;
+        occupied = new long[Level.wordsFor(bricksPerColumn, bricksPerRow)];
+    }
+
+    /**
+     * Sets how brick objects are created for cells touched by a ball.
+     * @param materializer Creates the brick of the given cell index, placed at the cell.
+     */
+    public void setMaterializer(IntFunction<Brick> materializer) {
+        this.materializer = materializer;
+    }
+
+    /**
+     * Sets an action told of every brick removed from the grid.
+     * @param removalListener Receives the cell index of each brick removed, or null for none.
+     */
+    public void setRemovalListener(IntConsumer removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Fills the grid with the bricks of a level, dropping any bricks it held.
+     * @param level Level of the grid's size.
+     */
+    public void load(Level level) {
+        if (level.rows() != bricksPerColumn || level.cols() != bricksPerRow) {
+            throw new IllegalArgumentException("Level is " + level.rows() + "x" + level.cols() +
+                    ", grid is " + bricksPerColumn + "x" + bricksPerRow);
+        }
+        level.copyCells(occupied);
+        brickCount = level.brickCount();
+    }
+
+    /**
+     * @param row Row of cell.
+     * @param col Column of cell.
+     * @return Top-left corner of the brick in the given cell, in window coordinates.
+     */
+    public Vector2 cellTopLeftCorner(int row, int col) {
+        return Vector2.of(originX + col * cellWidth, originY + row * cellHeight);
+    }
+
+    /**
+     * @param cell Index of cell.
+     * @return Top-left corner of the brick in the given cell, in window coordinates.
+     */
+    public Vector2 cellTopLeftCorner(int cell) {
+        return cellTopLeftCorner(cell / bricksPerRow, cell % bricksPerRow);
+    }
+
+    /**
+     * @return Width and height of a single brick.
+     */
+    public Vector2 brickDimensions() {
+        return Vector2.of(brickWidth, brickHeight);
+    }
+
+    /**
+     * @return Number of bricks left in the grid.
+     */
+    public int brickCount() {
+        return brickCount;
+    }
+
+    /**
+     * @return Number of bricks in each row.
+     */
+    public int bricksPerRow() {
+        return bricksPerRow;
+    }
+
+    /**
+     * @return Number of bricks in each column.
+     */
+    public int bricksPerColumn() {
+        return bricksPerColumn;
+    }
+
+    /**
+     * Tests a ball against the bricks in the cells it overlaps. If it overlaps a brick, the ball bounces
+     * off it and the brick is removed from the grid and hit.
+     * @param ball Ball to test.
+     * @return true if the ball hit a brick.
+     */
+    public boolean collide(Ball ball) {
+        float left = ball.getTopLeftCorner().x();
+        float top = ball.getTopLeftCorner().y();
+        float right = left + ball.getDimensions().x();
+        float bottom = top + ball.getDimensions().y();
+        int cell = findHit(left, top, right, bottom);
+        if (cell == NO_HIT) {
+            return false;
+        }
+        ball.bounce(hitNormal(cell, left, top, right, bottom));
+        removeAt(cell).onHit(ball);
+        return true;
+    }
+
+    /**
+     * Finds a brick overlapped by a box. Only the cells the box overlaps are examined.
+     * @param left x-value of box's left edge.
+     * @param top y-value of box's top edge.
+     * @param right x-value of box's right edge.
+     * @param bottom y-value of box's bottom edge.
+     * @return Index of the cell of an overlapped brick, or NO_HIT if the box overlaps no brick.
+     */
+    public int findHit(float left, float top, float right, float bottom) {
+        int firstCol = Math.max(0, (int) Math.floor((left - originX) / cellWidth));
+        int lastCol = Math.min(bricksPerRow - 1, (int) Math.floor((right - originX) / cellWidth));
+        int firstRow = Math.max(0, (int) Math.floor((top - originY) / cellHeight));
+        int lastRow = Math.min(bricksPerColumn - 1, (int) Math.floor((bottom - originY) / cellHeight));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cell = row * bricksPerRow + col;
+                if (!isOccupied(cell)) {
+                    continue;
+                }
+                float brickLeft = originX + col * cellWidth;
+                float brickTop = originY + row * cellHeight;
+                if (right > brickLeft && left < brickLeft + brickWidth &&
+                        bottom > brickTop && top < brickTop + brickHeight) { // not just in the clearance
+                    return cell;
+                }
+            }
+        }
+        return NO_HIT;
+    }
+
+    /**
+     * Sweeps a moving box against the bricks in the cells it passes through during a frame.
+     * @param impact Holds the earliest impact found so far; updated if a brick is touched earlier.
+     * @param x x-value of box's left edge, at the start of the frame.
+     * @param y y-value of box's top edge, at the start of the frame.
+     * @param width Width of box.
+     * @param height Height of box.
+     * @param dx Distance the box moves along x during the frame.
+     * @param dy Distance the box moves along y during the frame.
+     * @return Index of the cell of the brick touched, if it is touched before any impact previously held
+     *         by impact, or NO_HIT.
+     */
+    public int sweep(SweptAabb impact, float x, float y, float width, float height, float dx, float dy) {
+        float left = Math.min(x, x + dx);
+        float right = Math.max(x, x + dx) + width;
+        float top = Math.min(y, y + dy);
+        float bottom = Math.max(y, y + dy) + height;
+        int firstCol = Math.max(0, (int) Math.floor((left - originX) / cellWidth));
+        int lastCol = Math.min(bricksPerRow - 1, (int) Math.floor((right - originX) / cellWidth));
+        int firstRow = Math.max(0, (int) Math.floor((top - originY) / cellHeight));
+        int lastRow = Math.min(bricksPerColumn - 1, (int) Math.floor((bottom - originY) / cellHeight));
+
+        int hitCell = NO_HIT;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cell = row * bricksPerRow + col;
+                if (isOccupied(cell) && impact.sweep(x, y, width, height, dx, dy,
+                        originX + col * cellWidth, originY + row * cellHeight, brickWidth, brickHeight)) {
+                    hitCell = cell;
+                }
+            }
+        }
+        return hitCell;
+    }
+
+    /**
+     * Normal of the face of a brick hit by a box, pointing out of the brick. The box is pushed out along
+     * the axis on which it penetrates the brick the least.
+     * @param cell Index of the brick's cell, as returned by findHit.
+     * @param left x-value of box's left edge.
+     * @param top y-value of box's top edge.
+     * @param right x-value of box's right edge.
+     * @param bottom y-value of box's bottom edge.
+     * @return One of Vector2.LEFT, RIGHT, UP or DOWN.
+     */
+    public Vector2 hitNormal(int cell, float left, float top, float right, float bottom) {
+        float brickLeft = originX + (cell % bricksPerRow) * cellWidth;
+        float brickTop = originY + (cell / bricksPerRow) * cellHeight;
+        float overlapX = Math.min(right, brickLeft + brickWidth) - Math.max(left, brickLeft);
+        float overlapY = Math.min(bottom, brickTop + brickHeight) - Math.max(top, brickTop);
+        // centers are compared doubled, to spare the divisions.
+        if (overlapX < overlapY) {
+            return left + right < 2 * brickLeft + brickWidth ? Vector2.LEFT : Vector2.RIGHT;
+        }
+        return top + bottom < 2 * brickTop + brickHeight ? Vector2.UP : Vector2.DOWN;
+    }
+
+    /**
+     * @param cell Index of cell.
+     * @return true if the cell holds a brick.
+     */
+    public boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return Number of bytes writeCells puts.
+     */
+    public int cellsSize() {
+        return occupied.length * Long.BYTES;
+    }
+
+    /**
+     * Writes the grid's cells, one bit each, to a buffer.
+     * @param buffer Buffer to write to, from its position.
+     */
+    public void writeCells(ByteBuffer buffer) {
+        for (long word : occupied) {
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Checks that a buffer holds cells readCells can restore, reading past them.
+     * @param buffer Buffer to read from, from its position.
+     * @throws IllegalArgumentException If a cell beyond the grid holds a brick.
+     */
+    public void checkCells(ByteBuffer buffer) {
+        long lastWord = 0;
+        for (int word = 0; word < occupied.length; word++) {
+            lastWord = buffer.getLong();
+        }
+        int usedBits = (int) ((long) bricksPerRow * bricksPerColumn % Long.SIZE); // of the last word
+        if (usedBits != 0 && lastWord >>> usedBits != 0) {
+            throw new IllegalArgumentException("Brick outside the grid");
+        }
+    }
+
+    /**
+     * Replaces the grid's cells by ones written by writeCells, from a grid of the same size.
+     * @param buffer Buffer to read from, from its position.
+     */
+    public void readCells(ByteBuffer buffer) {
+        brickCount = 0;
+        for (int word = 0; word < occupied.length; word++) {
+            occupied[word] = buffer.getLong();
+            brickCount += Long.bitCount(occupied[word]);
+        }
+    }
+
+    /**
+     * Calls an action for the cell of every brick in the grid, in row-major order. Runs of empty cells
+     * are skipped a word at a time.
+     * @param action Receives the index of each occupied cell.
+     */
+    public void forEachBrick(IntConsumer action) {
+        for (int word = 0; word < occupied.length; word++) {
+            long bits = occupied[word];
+            while (bits != 0) {
+                action.accept(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1; // clear lowest set bit
+            }
+        }
+    }
+
+    /**
+     * Calls an action for the cell of every brick overlapping a box, in row-major order. Only the cells
+     * the box overlaps are examined.
+     * @param left x-value of box's left edge.
+     * @param top y-value of box's top edge.
+     * @param right x-value of box's right edge.
+     * @param bottom y-value of box's bottom edge.
+     * @param action Receives the index of each occupied cell.
+     */
+    public void forEachBrickIn(float left, float top, float right, float bottom, IntConsumer action) {
+        int firstCol = Math.max(0, (int) Math.floor((left - originX) / cellWidth));
+        int lastCol = Math.min(bricksPerRow - 1, (int) Math.floor((right - originX) / cellWidth));
+        int firstRow = Math.max(0, (int) Math.floor((top - originY) / cellHeight));
+        int lastRow = Math.min(bricksPerColumn - 1, (int) Math.floor((bottom - originY) / cellHeight));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int cell = row * bricksPerRow + col;
+                if (isOccupied(cell)) {
+                    action.accept(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a brick from the grid, materializing its object.
+     * @param cell Index of the brick's cell.
+     * @return The brick removed, or null if the cell held none.
+     */
+    public Brick removeAt(int cell) {
+        if (!isOccupied(cell)) {
+            return null;
+        }
+        occupied[cell >>> 6] &= ~(1L << cell);
+        brickCount--;
+        if (removalListener != null) {
+            removalListener.accept(cell);
+        }
+        return materializer.apply(cell);
+    }
+}
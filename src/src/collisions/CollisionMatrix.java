@@ -0,0 +1,52 @@
+package src.collisions;
+
+import danogl.collisions.Layer;
+import danogl.collisions.LayerManager;
+
+/**
+ * Which pairs of layers the engine's collision pass tests against each other. Every pair is set
+ * explicitly, so objects that never interact (HUD, background, objects collided by hand) never enter the
+ * pass, whatever the engine's defaults.
+ */
+public class CollisionMatrix {
+
+    private static final int[] LAYERS = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT,
+            Layer.FOREGROUND, Layer.UI};
+
+    private final boolean[][] collides = new boolean[LAYERS.length][LAYERS.length];
+
+    /**
+     * Lets objects of two layers collide. No pair collides unless allowed.
+     * @param layerA A layer.
+     * @param layerB A layer, possibly layerA itself.
+     * @return This matrix, for chaining.
+     */
+    public CollisionMatrix allow(int layerA, int layerB) {
+        int a = indexOf(layerA);
+        int b = indexOf(layerB);
+        collides[a][b] = true;
+        collides[b][a] = true;
+        return this;
+    }
+
+    /**
+     * Configures the engine's layers by the matrix, for every pair of layers.
+     * @param layers Layers of a game's object collection.
+     */
+    public void apply(LayerManager layers) {
+        for (int a = 0; a < LAYERS.length; a++) {
+            for (int b = a; b < LAYERS.length; b++) {
+                layers.shouldLayersCollide(LAYERS[a], LAYERS[b], collides[a][b]);
+            }
+        }
+    }
+
+    private static int indexOf(int layer) {
+        for (int i = 0; i < LAYERS.length; i++) {
+            if (LAYERS[i] == layer) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown layer " + layer);
+    }
+}
@@ -0,0 +1,92 @@
+package src.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import src.gameobjects.Ball;
+
+/**
+ * Continuous collision for balls moved by the engine. Before the engine moves a ball, sweeps its path for
+ * the frame against the bricks, the bounds of the arena and a set of static obstacles, so that a ball never
+ * passes through a thin brick or wall, however low the frame rate or high the ball's speed. The arena's
+ * walls are planes, handled here only; they are not game objects.
+ */
+public class ContinuousCollider {
+
+    private final BrickGrid brickGrid;
+    private final float minX;
+    private final float maxX;
+    private final float minY;
+    private final GameObject[] obstacles;
+    private final SweptAabb impact = new SweptAabb();
+
+    /**
+     * Construct a new continuous collider.
+     * @param brickGrid Grid of bricks balls bounce off and break.
+     * @param minX x-value of the arena's left wall.
+     * @param maxX x-value of the arena's right wall.
+     * @param minY y-value of the arena's top wall.
+     * @param obstacles Objects balls bounce off, such as the paddle.
+     */
+    public ContinuousCollider(BrickGrid brickGrid, float minX, float maxX, float minY,
+                              GameObject... obstacles) {
+        this.brickGrid = brickGrid;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.obstacles = obstacles;
+    }
+
+    /**
+     * Sweeps a ball's path for the coming frame. If it hits something, the ball is bounced at the point of
+     * impact, and placed so that the engine's own move for the frame leaves it where the bounce takes it.
+     * @param ball Ball about to be moved by the engine.
+     * @param deltaTime Duration of the coming frame, in seconds.
+     * @return true if the ball hit something.
+     */
+    public boolean step(Ball ball, float deltaTime) {
+        float x = ball.getTopLeftCorner().x();
+        float y = ball.getTopLeftCorner().y();
+        float width = ball.getDimensions().x();
+        float height = ball.getDimensions().y();
+        float dx = ball.getVelocity().x() * deltaTime;
+        float dy = ball.getVelocity().y() * deltaTime;
+
+        impact.reset();
+        int cell = brickGrid.sweep(impact, x, y, width, height, dx, dy);
+        if (impact.sweepBounds(x, y, width, height, dx, dy, minX, maxX, minY)) {
+            cell = BrickGrid.NO_HIT; // wall is hit before any brick
+        }
+        for (GameObject obstacle : obstacles) {
+            if (impact.sweep(x, y, width, height, dx, dy, obstacle.getTopLeftCorner().x(),
+                    obstacle.getTopLeftCorner().y(), obstacle.getDimensions().x(),
+                    obstacle.getDimensions().y())) {
+                cell = BrickGrid.NO_HIT; // obstacle is hit before any brick
+            }
+        }
+        if (!impact.hasImpact()) {
+            return false;
+        }
+
+        float time = impact.time();
+        ball.bounce(normalOf(impact));
+        // the engine moves the ball by a whole frame of its new velocity, so start it back from the impact
+        // point by the part of the frame that had already passed.
+        float elapsed = time * deltaTime;
+        ball.setTopLeftCorner(Vector2.of(x + dx * time - ball.getVelocity().x() * elapsed,
+                y + dy * time - ball.getVelocity().y() * elapsed));
+        if (cell != BrickGrid.NO_HIT) {
+            brickGrid.removeAt(cell).onHit(ball);
+        }
+        return true;
+    }
+
+    /**
+     * @return Unit vector of the normal of the face hit.
+     */
+    private static Vector2 normalOf(SweptAabb impact) {
+        if (impact.normalX() != 0) {
+            return impact.normalX() < 0 ? Vector2.LEFT : Vector2.RIGHT;
+        }
+        return impact.normalY() < 0 ? Vector2.UP : Vector2.DOWN;
+    }
+}
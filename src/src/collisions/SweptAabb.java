@@ -0,0 +1,157 @@
+package src.collisions;
+
+/**
+ * Swept axis-aligned bounding box test: finds when, during a frame, a moving box first touches a static
+ * one, however far it moves in that frame. Holds the earliest impact found since it was last reset, so a
+ * moving box can be swept against several obstacles in turn without allocating.
+ */
+public class SweptAabb {
+
+    /** Time of impact reported when nothing was hit: the end of the frame. */
+    public static final float NO_IMPACT = 1;
+
+    private float time = NO_IMPACT;
+    private float normalX = 0;
+    private float normalY = 0;
+
+    /**
+     * Forgets the impact found so far, before sweeping a box for a new frame.
+     */
+    public void reset() {
+        time = NO_IMPACT;
+        normalX = 0;
+        normalY = 0;
+    }
+
+    /**
+     * Sweeps a moving box against a static one. Boxes that already overlap at the start of the frame
+     * are not reported.
+     * @param x x-value of moving box's left edge, at the start of the frame.
+     * @param y y-value of moving box's top edge, at the start of the frame.
+     * @param width Width of moving box.
+     * @param height Height of moving box.
+     * @param dx Distance the box moves along x during the frame.
+     * @param dy Distance the box moves along y during the frame.
+     * @param obstacleX x-value of static box's left edge.
+     * @param obstacleY y-value of static box's top edge.
+     * @param obstacleWidth Width of static box.
+     * @param obstacleHeight Height of static box.
+     * @return true if the boxes touch earlier than any impact found since the last reset.
+     */
+    public boolean sweep(float x, float y, float width, float height, float dx, float dy,
+                         float obstacleX, float obstacleY, float obstacleWidth, float obstacleHeight) {
+        float entryX;
+        float exitX;
+        if (dx > 0) {
+            entryX = (obstacleX - (x + width)) / dx;
+            exitX = (obstacleX + obstacleWidth - x) / dx;
+        } else if (dx < 0) {
+            entryX = (obstacleX + obstacleWidth - x) / dx;
+            exitX = (obstacleX - (x + width)) / dx;
+        } else if (x + width > obstacleX && x < obstacleX + obstacleWidth) { // overlapping on x throughout
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else {
+            return false;
+        }
+        float entryY;
+        float exitY;
+        if (dy > 0) {
+            entryY = (obstacleY - (y + height)) / dy;
+            exitY = (obstacleY + obstacleHeight - y) / dy;
+        } else if (dy < 0) {
+            entryY = (obstacleY + obstacleHeight - y) / dy;
+            exitY = (obstacleY - (y + height)) / dy;
+        } else if (y + height > obstacleY && y < obstacleY + obstacleHeight) {
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        } else {
+            return false;
+        }
+
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry > exit || entry < 0 || entry >= time) {
+            return false;
+        }
+        time = entry;
+        if (entryX > entryY) { // touched on the x axis last, so that is the face hit
+            normalX = dx > 0 ? -1 : 1;
+            normalY = 0;
+        } else {
+            normalX = 0;
+            normalY = dy > 0 ? -1 : 1;
+        }
+        return true;
+    }
+
+    /**
+     * Sweeps a moving box against the bounds of the arena: planes on its left, right and top, which the
+     * box stays between. A box already past a plane and moving further out touches it at once.
+     * @param x x-value of moving box's left edge, at the start of the frame.
+     * @param y y-value of moving box's top edge, at the start of the frame.
+     * @param width Width of moving box.
+     * @param height Height of moving box.
+     * @param dx Distance the box moves along x during the frame.
+     * @param dy Distance the box moves along y during the frame.
+     * @param minX x-value of the left plane.
+     * @param maxX x-value of the right plane.
+     * @param minY y-value of the top plane.
+     * @return true if the box touches a plane earlier than any impact found since the last reset.
+     */
+    public boolean sweepBounds(float x, float y, float width, float height, float dx, float dy,
+                               float minX, float maxX, float minY) {
+        boolean hit = false;
+        if (dx < 0 && x + dx < minX) {
+            hit |= offer((minX - x) / dx, 1, 0);
+        } else if (dx > 0 && x + width + dx > maxX) {
+            hit |= offer((maxX - (x + width)) / dx, -1, 0);
+        }
+        if (dy < 0 && y + dy < minY) {
+            hit |= offer((minY - y) / dy, 0, 1);
+        }
+        return hit;
+    }
+
+    /**
+     * Keeps an impact if it is the earliest yet.
+     */
+    private boolean offer(float entry, float normalX, float normalY) {
+        entry = Math.max(entry, 0);
+        if (entry >= time) {
+            return false;
+        }
+        time = entry;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        return true;
+    }
+
+    /**
+     * @return true if an impact was found since the last reset.
+     */
+    public boolean hasImpact() {
+        return time < NO_IMPACT;
+    }
+
+    /**
+     * @return Time of earliest impact, as a fraction of the frame, or NO_IMPACT.
+     */
+    public float time() {
+        return time;
+    }
+
+    /**
+     * @return x-value of the normal of the face hit first, pointing out of the obstacle.
+     */
+    public float normalX() {
+        return normalX;
+    }
+
+    /**
+     * @return y-value of the normal of the face hit first, pointing out of the obstacle.
+     */
+    public float normalY() {
+        return normalY;
+    }
+}
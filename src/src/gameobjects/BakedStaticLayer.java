@@ -0,0 +1,135 @@
+package src.gameobjects;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Render cache for the parts of the scene that change only when a brick breaks, i.e. the background and
+ * the bricks. Their objects are baked once into an offscreen image, which is then drawn with a single
+ * blit per frame. Whenever part of the scene changes, only that dirty rectangle is redrawn into the
+ * image, from all the baked objects, in their given order.
+ */
+public class BakedStaticLayer extends GameObject {
+
+    // beyond this many dirty rectangles in a frame, they are merged into their bounding rectangle.
+    private static final int MAX_DIRTY_RECTS = 16;
+
+    private final GameObject[] sources;
+    private final List<Rectangle> dirtyRects = new ArrayList<>();
+    private boolean fullyDirty = true;
+    private BufferedImage image;
+
+    /**
+     * Construct a new baked layer. The source objects should not be added to the game themselves.
+     * @param topLeftCorner Position of the layer, in window coordinates (pixels).
+     * @param dimensions Width and height of the layer, in window coordinates.
+     * @param sources Objects baked into the layer, from back to front.
+     */
+    public BakedStaticLayer(Vector2 topLeftCorner, Vector2 dimensions, GameObject... sources) {
+        super(topLeftCorner, dimensions, null);
+        this.sources = sources;
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        renderer().setRenderable(new BakedRenderable());
+    }
+
+    /**
+     * Marks a region as changed, to be redrawn into the image before it is next drawn.
+     * @param topLeftCorner Top-left corner of the region, in window coordinates.
+     * @param dimensions Width and height of the region.
+     */
+    public void invalidate(Vector2 topLeftCorner, Vector2 dimensions) {
+        if (fullyDirty) {
+            return;
+        }
+        // rounded outwards, so that no partly covered pixel is left stale.
+        int left = (int) Math.floor(topLeftCorner.x());
+        int top = (int) Math.floor(topLeftCorner.y());
+        Rectangle rect = new Rectangle(left, top, (int) Math.ceil(topLeftCorner.x() + dimensions.x()) - left,
+                (int) Math.ceil(topLeftCorner.y() + dimensions.y()) - top);
+        if (dirtyRects.size() == MAX_DIRTY_RECTS) {
+            Rectangle bounds = rect;
+            for (Rectangle dirtyRect : dirtyRects) {
+                bounds = bounds.union(dirtyRect);
+            }
+            dirtyRects.clear();
+            rect = bounds;
+        }
+        dirtyRects.add(rect);
+    }
+
+    /**
+     * Marks the whole layer as changed, e.g. when a new game begins.
+     */
+    public void invalidateAll() {
+        fullyDirty = true;
+        dirtyRects.clear();
+    }
+
+    /**
+     * The layer never takes part in collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * Brings the dirty parts of the image up to date, then draws the image.
+     */
+    private class BakedRenderable implements Renderable {
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                           boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+            int width = (int) Math.ceil(dimensions.x());
+            int height = (int) Math.ceil(dimensions.y());
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                // an image of the screen's own format is blitted without conversion.
+                image = g.getDeviceConfiguration().createCompatibleImage(width, height);
+                fullyDirty = true;
+            }
+            if (fullyDirty) {
+                bake(topLeftCorner, new Rectangle((int) topLeftCorner.x(), (int) topLeftCorner.y(), width,
+                        height));
+                fullyDirty = false;
+                dirtyRects.clear();
+            }
+            for (Rectangle dirtyRect : dirtyRects) {
+                bake(topLeftCorner, dirtyRect);
+            }
+            dirtyRects.clear();
+            g.drawImage(image, (int) topLeftCorner.x(), (int) topLeftCorner.y(), null);
+        }
+
+        /**
+         * Redraws a region of the image from the source objects.
+         * @param topLeftCorner Position of the layer, in window coordinates.
+         * @param region Region to redraw, in window coordinates.
+         */
+        private void bake(Vector2 topLeftCorner, Rectangle region) {
+            Graphics2D imageGraphics = image.createGraphics();
+            try {
+                imageGraphics.translate(-topLeftCorner.x(), -topLeftCorner.y()); // draw in window coordinates
+                imageGraphics.setClip(region);
+                for (GameObject source : sources) {
+                    Renderable renderable = source.renderer().getRenderable();
+                    if (renderable != null) {
+                        renderable.render(imageGraphics, source.getTopLeftCorner(), source.getDimensions(), 0,
+                                false, false, 1);
+                    }
+                }
+            } finally {
+                imageGraphics.dispose();
+            }
+        }
+    }
+}
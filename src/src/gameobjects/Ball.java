@@ -2,15 +2,26 @@ package src.gameobjects;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import src.audio.CollisionSoundMixer;
+import src.util.MutableVector2;
+
+import java.util.Arrays;
 
 /**
  * Represents a ball in the Bricker game.
  */
 public class Ball extends GameObject {
-    private Sound collisionSound;
+    private final MutableVector2 reflected = new MutableVector2();
+    // velocities after reflection, by sign quadrant. Axis-aligned reflections only flip signs, so a ball
+    // bouncing off walls and bricks cycles through at most four velocities of the same magnitude.
+    private final Vector2[] velocityByQuadrant = new Vector2[4];
+    private float quadrantSpeedX = Float.NaN;
+    private float quadrantSpeedY = Float.NaN;
+    private final CollisionSoundMixer soundMixer;
+    private int velocityVersion = 0;
+    private float gravity = 0;
 
     /**
      * Construct a new Ball instance.
@@ -20,11 +31,12 @@ public class Ball extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case object is
      *                      not rendered.
+     * @param soundMixer Mixer to trigger the collision sound on. Can be null, in which case ball is silent.
      */
     public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                Sound collisionSound) {
+                CollisionSoundMixer soundMixer) {
         super(topLeftCorner, dimensions, renderable);
-        this.collisionSound = collisionSound;
+        this.soundMixer = soundMixer;
     }
 
     /**
@@ -35,8 +47,75 @@ public class Ball extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
-        Vector2 newVel = getVelocity().flipped(collision.getNormal());
-        collisionSound.play();
-        setVelocity(newVel);
+        bounce(collision.getNormal());
+    }
+
+    /**
+     * Reflects the ball's velocity off a surface and plays the collision sound.
+     * @param normal Normal of the surface the ball hit.
+     */
+    public void bounce(Vector2 normal) {
+        reflected.set(getVelocity()).reflect(normal.x(), normal.y());
+        if (soundMixer != null) {
+            soundMixer.trigger();
+        }
+        setVelocity(velocityOf(reflected.x(), reflected.y()));
+    }
+
+    /**
+     * Sets the ball's velocity, counting the change of course.
+     * @param velocity New velocity.
+     */
+    @Override
+    public void setVelocity(Vector2 velocity) {
+        super.setVelocity(velocity);
+        velocityVersion++;
+    }
+
+    /**
+     * Sets a constant downward pull on the ball, integrated into its velocity by the engine as it moves.
+     * The velocity it changes is not counted as a change of course; changing the pull itself is.
+     * @param gravity Downward acceleration, in pixels per second squared; 0 for none.
+     */
+    public void setGravity(float gravity) {
+        if (gravity == this.gravity) {
+            return;
+        }
+        this.gravity = gravity;
+        transform().setAccelerationY(gravity);
+        velocityVersion++;
+    }
+
+    /**
+     * @return Downward acceleration of the ball, in pixels per second squared.
+     */
+    public float gravity() {
+        return gravity;
+    }
+
+    /**
+     * @return Number of times the ball's course has changed. Predictions of the ball's path hold for as
+     *         long as it stays the same.
+     */
+    public int velocityVersion() {
+        return velocityVersion;
+    }
+
+    /**
+     * @return A Vector2 with the given coordinates, reused if the ball has had this velocity before.
+     */
+    private Vector2 velocityOf(float velX, float velY) {
+        float speedX = Math.abs(velX);
+        float speedY = Math.abs(velY);
+        if (speedX != quadrantSpeedX || speedY != quadrantSpeedY) { // speed changed, cache is stale
+            Arrays.fill(velocityByQuadrant, null);
+            quadrantSpeedX = speedX;
+            quadrantSpeedY = speedY;
+        }
+        int quadrant = (velX < 0 ? 1 : 0) | (velY < 0 ? 2 : 0);
+        if (velocityByQuadrant[quadrant] == null) {
+            velocityByQuadrant[quadrant] = Vector2.of(velX, velY);
+        }
+        return velocityByQuadrant[quadrant];
     }
 }
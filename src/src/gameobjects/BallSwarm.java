@@ -0,0 +1,395 @@
+package src.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import src.audio.CollisionSoundMixer;
+import src.collisions.BrickGrid;
+import src.collisions.SweptAabb;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Many balls sharing one game object. Positions and velocities are kept in parallel float arrays, and all
+ * balls are moved and bounced in a single loop, rather than each being a game object of its own. Balls
+ * bounce off the walls, the paddle and the bricks, and leave the swarm when they fall past the paddle.
+ */
+public class BallSwarm extends GameObject {
+
+    private static final int PARALLEL_CHUNK_SIZE = 1024; // smallest range of balls worth a task
+    private static final int LOST = -2; // hit cell of a ball that fell past the paddle
+
+    private final float[] posX; // top-left corner of each ball
+    private final float[] posY;
+    private final float[] velX;
+    private final float[] velY;
+    private final int[] hitCell; // cell of brick each ball meets this frame, NO_HIT or LOST
+    private final float[] hitTime; // fraction of frame at which each ball meets its brick
+    private final boolean[] hitOnSide; // whether each ball meets its brick's left or right face
+    private final boolean[] bounced; // whether each ball bounced off a wall or the paddle this frame
+    private final SweptAabb serialImpact = new SweptAabb(); // for balls moved on the calling thread
+    private final float ballSize;
+    private final float minX; // bounds for the top-left corner of a ball
+    private final float maxX;
+    private final float minY;
+    private final float lostY;
+    private final BrickGrid brickGrid;
+    private final Paddle paddle;
+    private final CollisionSoundMixer soundMixer;
+    private int count = 0;
+    private ForkJoinPool pool = null;
+    private float paddleLeft; // paddle bounds, read by all balls of a step
+    private float paddleTop;
+    private float paddleWidth;
+    private float paddleHeight;
+
+    /**
+     * Construct a new, empty swarm.
+     * @param capacity Maximal number of balls in swarm.
+     * @param ballSize Width and height of every ball.
+     * @param ballRenderable Renderable shared by all balls. Can be null, in which case balls are not
+     *                       rendered.
+     * @param soundMixer Mixer to trigger the collision sound on. Can be null, in which case the swarm is
+     *                   silent.
+     * @param windowDimensions Dimensions of window housing game.
+     * @param borderWidth Width of the walls on the left, right and top of the window.
+     * @param brickGrid Grid of bricks the balls bounce off and break.
+     * @param paddle Paddle the balls bounce off.
+     */
+    public BallSwarm(int capacity, float ballSize, Renderable ballRenderable, CollisionSoundMixer soundMixer,
+                     Vector2 windowDimensions, float borderWidth, BrickGrid brickGrid, Paddle paddle) {
+        super(Vector2.ZERO, windowDimensions, null);
+        posX = new float[capacity];
+        posY = new float[capacity];
+        velX = new float[capacity];
+        velY = new float[capacity];
+        hitCell = new int[capacity];
+        hitTime = new float[capacity];
+        hitOnSide = new boolean[capacity];
+        bounced = new boolean[capacity];
+        this.ballSize = ballSize;
+        this.soundMixer = soundMixer;
+        this.brickGrid = brickGrid;
+        this.paddle = paddle;
+        minX = borderWidth;
+        maxX = windowDimensions.x() - borderWidth - ballSize;
+        minY = borderWidth;
+        lostY = windowDimensions.y();
+        if (ballRenderable != null) {
+            renderer().setRenderable(new SwarmRenderable(ballRenderable));
+        }
+    }
+
+    /**
+     * Adds a ball to the swarm. Ignored if the swarm is full.
+     * @param centerX x-value of ball's center.
+     * @param centerY y-value of ball's center.
+     * @param ballVelX x-value of ball's velocity.
+     * @param ballVelY y-value of ball's velocity.
+     */
+    public void spawn(float centerX, float centerY, float ballVelX, float ballVelY) {
+        if (count == posX.length) {
+            return;
+        }
+        posX[count] = centerX - ballSize / 2;
+        posY[count] = centerY - ballSize / 2;
+        velX[count] = ballVelX;
+        velY[count] = ballVelY;
+        count++;
+    }
+
+    /**
+     * Removes all balls from the swarm.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * @return Number of bytes writeState puts for the swarm's current balls.
+     */
+    public int stateSize() {
+        return Integer.BYTES + count * 4 * Float.BYTES;
+    }
+
+    /**
+     * Writes the position and velocity of every ball to a buffer.
+     * @param buffer Buffer to write to, from its position.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putFloat(posX[i]).putFloat(posY[i]).putFloat(velX[i]).putFloat(velY[i]);
+        }
+    }
+
+    /**
+     * Checks that a buffer holds balls readState can restore, reading past them.
+     * @param buffer Buffer to read from, from its position.
+     * @throws IllegalArgumentException If the number of balls is negative or exceeds the buffer.
+     */
+    public static void checkState(ByteBuffer buffer) {
+        int written = buffer.getInt();
+        if (written < 0 || written > buffer.remaining() / (4 * Float.BYTES)) {
+            throw new IllegalArgumentException("Invalid number of swarm balls: " + written);
+        }
+        buffer.position(buffer.position() + written * 4 * Float.BYTES);
+    }
+
+    /**
+     * Replaces the swarm's balls by ones written by writeState.
+     * @param buffer Buffer to read from, from its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        int written = buffer.getInt();
+        count = Math.min(written, posX.length);
+        for (int i = 0; i < written; i++) {
+            if (i < count) {
+                posX[i] = buffer.getFloat();
+                posY[i] = buffer.getFloat();
+                velX[i] = buffer.getFloat();
+                velY[i] = buffer.getFloat();
+            } else { // beyond the swarm's capacity
+                buffer.position(buffer.position() + 4 * Float.BYTES);
+            }
+        }
+    }
+
+    /**
+     * @return Number of balls in the swarm.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * The swarm collides through its own loop, never through the engine.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * Sets the pool on which the swarm steps its balls. Balls are moved and tested against the bricks
+     * in parallel chunks, and the bricks they hit are then resolved on the calling thread in ball order,
+     * so the outcome is identical to stepping without a pool.
+     * @param pool Pool to step balls on, or null to step them on the calling thread only.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Moves and bounces every ball of the swarm. Paths are swept, so balls cannot pass through bricks or
+     * the paddle however long the frame.
+     * @param deltaTime The time, in seconds, that passed since the last invocation of this method.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        paddleLeft = paddle.getTopLeftCorner().x();
+        paddleTop = paddle.getTopLeftCorner().y();
+        paddleWidth = paddle.getDimensions().x();
+        paddleHeight = paddle.getDimensions().y();
+        if (pool == null || count <= PARALLEL_CHUNK_SIZE) {
+            moveBalls(0, count, deltaTime, serialImpact);
+        } else {
+            pool.invoke(new MoveTask(0, count, deltaTime));
+        }
+        boolean collided = resolveHits(deltaTime);
+        if (collided && soundMixer != null) {
+            soundMixer.trigger();
+        }
+    }
+
+    /**
+     * First phase of a step: sweeps a range of balls along their paths, bouncing them off the paddle and
+     * the walls. A ball whose path meets a brick is stopped at the point of impact, and the brick's cell
+     * recorded. Writes only to the given range of balls and reads the brick grid without changing it, so
+     * disjoint ranges may run concurrently, each with its own impact.
+     */
+    private void moveBalls(int from, int to, float deltaTime, SweptAabb impact) {
+        for (int i = from; i < to; i++) {
+            float x = posX[i];
+            float y = posY[i];
+            float dx = velX[i] * deltaTime;
+            float dy = velY[i] * deltaTime;
+            bounced[i] = false;
+
+            impact.reset();
+            int cell = brickGrid.sweep(impact, x, y, ballSize, ballSize, dx, dy);
+            if (velY[i] > 0 && impact.sweep(x, y, ballSize, ballSize, dx, dy, paddleLeft, paddleTop,
+                    paddleWidth, paddleHeight)) {
+                cell = BrickGrid.NO_HIT; // paddle is hit before any brick
+            }
+            float time = impact.time();
+            x += dx * time;
+            y += dy * time;
+            if (cell != BrickGrid.NO_HIT) { // stop at brick, whether it bounces is resolved later
+                hitCell[i] = cell;
+                hitTime[i] = time;
+                hitOnSide[i] = impact.normalX() != 0;
+                posX[i] = x;
+                posY[i] = y;
+                continue;
+            }
+            if (impact.hasImpact()) { // bounced off paddle, carry on for the rest of the frame
+                reflect(i, impact.normalX() != 0);
+                float remaining = (1 - time) * deltaTime;
+                x += velX[i] * remaining;
+                y += velY[i] * remaining;
+                bounced[i] = true;
+            }
+            posX[i] = x;
+            posY[i] = y;
+            if (y > lostY) { // fell past paddle
+                hitCell[i] = LOST;
+                continue;
+            }
+            bounced[i] |= bounceOffWalls(i);
+            // a ball that started the frame overlapping a brick is not swept into it, catch it here.
+            cell = brickGrid.findHit(posX[i], posY[i], posX[i] + ballSize, posY[i] + ballSize);
+            hitCell[i] = cell;
+            if (cell != BrickGrid.NO_HIT) {
+                hitTime[i] = SweptAabb.NO_IMPACT;
+                hitOnSide[i] = brickGrid.hitNormal(cell, posX[i], posY[i], posX[i] + ballSize,
+                        posY[i] + ballSize).x() != 0;
+            }
+        }
+    }
+
+    /**
+     * Second phase of a step, always on the calling thread: in ball order, bounces each ball off the
+     * brick it met and breaks the brick, then moves it for the rest of the frame. A brick met by several
+     * balls is broken by the first of them only; the others pass on as if it were already gone. Balls
+     * that fell past the paddle are then removed, keeping the order of the rest.
+     * @return true if any ball collided with anything this frame.
+     */
+    private boolean resolveHits(float deltaTime) {
+        boolean collided = false;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = hitCell[i];
+            if (cell == LOST) {
+                continue;
+            }
+            collided |= bounced[i];
+            if (cell != BrickGrid.NO_HIT) {
+                if (brickGrid.isOccupied(cell)) { // not broken by an earlier ball
+                    reflect(i, hitOnSide[i]);
+                    brickGrid.removeAt(cell).onHit(this);
+                    collided = true;
+                }
+                float remaining = (1 - hitTime[i]) * deltaTime;
+                posX[i] += velX[i] * remaining;
+                posY[i] += velY[i] * remaining;
+                collided |= bounceOffWalls(i);
+            }
+            posX[kept] = posX[i];
+            posY[kept] = posY[i];
+            velX[kept] = velX[i];
+            velY[kept] = velY[i];
+            kept++;
+        }
+        count = kept;
+        return collided;
+    }
+
+    /**
+     * Reflects a ball's velocity off an axis-aligned face.
+     * @param ball Index of ball.
+     * @param onSide true for a left or right face, false for a top or bottom face.
+     */
+    private void reflect(int ball, boolean onSide) {
+        if (onSide) {
+            velX[ball] = -velX[ball];
+        } else {
+            velY[ball] = -velY[ball];
+        }
+    }
+
+    /**
+     * Bounces a ball off the walls, treated as planes: a ball past a wall is mirrored back across it.
+     * @param ball Index of ball.
+     * @return true if the ball bounced.
+     */
+    private boolean bounceOffWalls(int ball) {
+        boolean bounce = false;
+        if (posX[ball] < minX) {
+            posX[ball] = 2 * minX - posX[ball];
+            velX[ball] = Math.abs(velX[ball]);
+            bounce = true;
+        } else if (posX[ball] > maxX) {
+            posX[ball] = 2 * maxX - posX[ball];
+            velX[ball] = -Math.abs(velX[ball]);
+            bounce = true;
+        }
+        if (posY[ball] < minY) {
+            posY[ball] = 2 * minY - posY[ball];
+            velY[ball] = Math.abs(velY[ball]);
+            bounce = true;
+        }
+        return bounce;
+    }
+
+    /**
+     * Moves a range of balls, splitting it in halves until the chunks are small enough.
+     */
+    private class MoveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final float deltaTime;
+
+        MoveTask(int from, int to, float deltaTime) {
+            this.from = from;
+            this.to = to;
+            this.deltaTime = deltaTime;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                moveBalls(from, to, deltaTime, new SweptAabb()); // one per chunk, as chunks run concurrently
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MoveTask(from, middle, deltaTime), new MoveTask(middle, to, deltaTime));
+        }
+    }
+
+    /**
+     * Draws every ball of the swarm with one shared renderable.
+     */
+    private class SwarmRenderable implements Renderable {
+
+        private final Renderable ballRenderable;
+        private final Vector2 ballDimensions;
+
+        SwarmRenderable(Renderable ballRenderable) {
+            this.ballRenderable = ballRenderable;
+            this.ballDimensions = Vector2.of(ballSize, ballSize);
+        }
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                           boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+            // each ball is drawn at the origin of a translated transform, rather than at a new Vector2.
+            AffineTransform base = g.getTransform();
+            for (int i = 0; i < count; i++) {
+                g.translate(posX[i], posY[i]);
+                ballRenderable.render(g, Vector2.ZERO, ballDimensions, 0, false, false, opaqueness);
+                g.setTransform(base);
+            }
+        }
+    }
+}
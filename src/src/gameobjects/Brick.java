@@ -1,6 +1,5 @@
 package src.gameobjects;
 
-import danogl.util.Counter;
 import src.brick_strategies.CollisionStrategy;
 import danogl.GameObject;
 import danogl.collisions.Collision;
@@ -12,7 +11,6 @@ import danogl.util.Vector2;
  */
 public class Brick extends GameObject {
     private CollisionStrategy collisionStrategy;
-    private Counter brickCounter;
 
 
     /**
@@ -23,13 +21,26 @@ public class Brick extends GameObject {
      * @param renderable – The renderable representing the object. Can be null, in which case the Brick
      * will not be rendered.
      * @param collisionStrategy Object to handle collisions between bricks and other objects.
-     * @param brickCounter Counter object ot keep track of existing bricks.
      */
     public Brick(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                 CollisionStrategy collisionStrategy, Counter brickCounter) {
+                 CollisionStrategy collisionStrategy) {
         super(topLeftCorner, dimensions, renderable);
         this.collisionStrategy = collisionStrategy;
-        this.brickCounter = brickCounter;
+    }
+
+    /**
+     * Re-arms a pooled brick for a new game.
+     * @param topLeftCorner Position of the brick, in window coordinates (pixels).
+     * @param dimensions Width and height in window coordinates.
+     * @param renderable The renderable representing the brick.
+     * @param collisionStrategy Object to handle collisions between the brick and other objects.
+     */
+    public void rearm(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+                      CollisionStrategy collisionStrategy) {
+        setTopLeftCorner(topLeftCorner);
+        setDimensions(dimensions);
+        renderer().setRenderable(renderable);
+        this.collisionStrategy = collisionStrategy;
     }
 
     /**
@@ -40,7 +51,15 @@ public class Brick extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        onHit(other);
+    }
+
+    /**
+     * Breaks the brick according to its collision strategy. The brick counter is decremented when the
+     * broken brick is actually removed, at the end of the frame.
+     * @param other The object that hit the brick.
+     */
+    public void onHit(GameObject other) {
         collisionStrategy.onCollision(this, other);
-        brickCounter.decrement();
     }
 }
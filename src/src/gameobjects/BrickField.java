@@ -0,0 +1,67 @@
+package src.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import src.collisions.BrickGrid;
+
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Draws all the bricks still in a brick grid through a single renderable, so bricks need not exist as
+ * objects to be seen. The field itself never collides; balls are tested against the grid directly.
+ */
+public class BrickField extends GameObject {
+
+    private final BrickGrid brickGrid;
+    private final Renderable brickRenderable;
+    private final Vector2 brickDimensions;
+
+    /**
+     * Construct a new brick field.
+     * @param topLeftCorner Position of the field, in window coordinates (pixels).
+     * @param dimensions Width and height of the field in window coordinates.
+     * @param brickGrid Grid whose bricks are drawn.
+     * @param brickRenderable The renderable representing a single brick.
+     */
+    public BrickField(Vector2 topLeftCorner, Vector2 dimensions, BrickGrid brickGrid,
+                      Renderable brickRenderable) {
+        super(topLeftCorner, dimensions, null);
+        this.brickGrid = brickGrid;
+        this.brickRenderable = brickRenderable;
+        this.brickDimensions = brickGrid.brickDimensions();
+        renderer().setRenderable(new BricksRenderable());
+    }
+
+    /**
+     * The field never takes part in collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * Draws one brick per occupied cell of the grid. When drawing is clipped, e.g. to a dirty rectangle,
+     * only the cells within the clip are visited.
+     */
+    private class BricksRenderable implements Renderable {
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                           boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+            IntConsumer drawBrick = cell -> brickRenderable.render(g, brickGrid.cellTopLeftCorner(cell),
+                    brickDimensions, rotation, isFlippedHorizontally, isFlippedVertically, opaqueness);
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                brickGrid.forEachBrick(drawBrick);
+            } else {
+                brickGrid.forEachBrickIn(clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                        drawBrick);
+            }
+        }
+    }
+}
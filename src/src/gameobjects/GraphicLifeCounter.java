@@ -1,28 +1,24 @@
 package src.gameobjects;
 
 import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
 import danogl.gui.rendering.Renderable;
-import danogl.util.Counter;
 import danogl.util.Vector2;
+import src.util.ObservableCounter;
 
 import java.awt.*;
 
 /**
- * Represents the graphic life-counter in the Bricker game.
+ * Represents the graphic life-counter in the Bricker game. All life icons are drawn by a single
+ * renderable, and the number drawn changes only when the lives counter notifies a change.
  */
 public class GraphicLifeCounter extends GameObject {
 
     private static final float ICON_CLEARANCE = 5; // distance between life icons
-    private final Vector2 widgetTopLeftCorner;
+    private final Vector2[] iconOffsets; // top-left corner of each icon, relative to the counter
+    private final Vector2[] iconCorners; // top-left corner of each icon, in window coordinates
     private final Vector2 widgetDimensions;
-    private final Counter livesCounter;
     private final Renderable widgetRenderable;
-    private final GameObjectCollection gameObjectsCollection;
-    private final int numOfLives; // at beginning of game
     private int curLives;
-    private GameObject[] widgets = null;
 
     /**
      *
@@ -31,49 +27,48 @@ public class GraphicLifeCounter extends GameObject {
      * @param livesCounter Counter object to track number of lives.
      * @param widgetRenderable The renderable representing the widget. Can be null, in which case the
      *                         widget will not be rendered.
-     * @param gameObjectsCollection Object representing the collection of objects in the game.
-     * @param numOfLives Number of lives player begins with in game.
+     * @param numOfLives Largest number of lives shown: the widget has room for this many icons, and more
+     *                   lives are shown as this many.
      */
-    public GraphicLifeCounter(Vector2 widgetTopLeftCorner, Vector2 widgetDimensions, Counter livesCounter,
-                              Renderable widgetRenderable, GameObjectCollection gameObjectsCollection,
-                              int numOfLives) {
-        super(widgetTopLeftCorner, Vector2.ZERO, null);
+    public GraphicLifeCounter(Vector2 widgetTopLeftCorner, Vector2 widgetDimensions,
+                              ObservableCounter livesCounter, Renderable widgetRenderable, int numOfLives) {
+        super(widgetTopLeftCorner, Vector2.of(numOfLives * (widgetDimensions.x() + ICON_CLEARANCE),
+                widgetDimensions.y()), null);
 
-        this.widgetTopLeftCorner = widgetTopLeftCorner;
         this.widgetDimensions = widgetDimensions;
-        this.livesCounter = livesCounter;
         this.widgetRenderable = widgetRenderable;
-        this.gameObjectsCollection = gameObjectsCollection;
-        this.numOfLives = numOfLives;
-        widgets = new GameObject[numOfLives];
-        curLives = livesCounter.value();
-        initializeCounter();
-    }
-
-    /**
-     * Method to create and place expected number of counter icons.
-     */
-    private void initializeCounter() {
+        iconOffsets = new Vector2[numOfLives];
+        iconCorners = new Vector2[numOfLives];
         for (int i = 0; i < numOfLives; i++) {
-            Vector2 increment = Vector2.of(i * (widgetDimensions.x() + ICON_CLEARANCE), 0);
-            widgets[i] = new GameObject(widgetTopLeftCorner.add(increment), widgetDimensions,
-                    widgetRenderable);
-            gameObjectsCollection.addGameObject(widgets[i], Layer.BACKGROUND); // add to background to avoid
-                                                                            // collisions
+            iconOffsets[i] = Vector2.of(i * (widgetDimensions.x() + ICON_CLEARANCE), 0);
+        }
+        curLives = livesCounter.value();
+        livesCounter.subscribe(lives -> curLives = Math.max(0, Math.min(lives, numOfLives)));
+        if (widgetRenderable != null) {
+            renderer().setRenderable(new IconsRenderable());
         }
     }
 
     /**
-     * To be called at every frame.
-     * @param deltaTime See parent function.
+     * Draws one icon per remaining life, side by side.
      */
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        if (livesCounter.value() != curLives) { // number of lives has changed.
-            gameObjectsCollection.removeGameObject(widgets[curLives - 1], Layer.BACKGROUND);
-            curLives = livesCounter.value();
+    private class IconsRenderable implements Renderable {
+
+        private Vector2 lastTopLeftCorner = null;
+
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double rotation,
+                           boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+            if (topLeftCorner != lastTopLeftCorner) { // counter moved, icon positions are recomputed
+                for (int i = 0; i < iconCorners.length; i++) {
+                    iconCorners[i] = topLeftCorner.add(iconOffsets[i]);
+                }
+                lastTopLeftCorner = topLeftCorner;
+            }
+            for (int i = 0; i < curLives; i++) {
+                widgetRenderable.render(g, iconCorners[i], widgetDimensions, rotation,
+                        isFlippedHorizontally, isFlippedVertically, opaqueness);
+            }
         }
     }
-
 }
@@ -0,0 +1,53 @@
+package src.gameobjects;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * Message drawn over the game, in place of a modal dialog, so the frame loop never blocks on the player.
+ */
+public class OverlayPrompt extends GameObject {
+
+    private final TextRenderable textRenderable = new TextRenderable("");
+
+    /**
+     * Construct a new, hidden overlay prompt.
+     * @param topLeftCorner Position of the prompt, in window coordinates (pixels).
+     * @param dimensions Width and height in window coordinates.
+     */
+    public OverlayPrompt(Vector2 topLeftCorner, Vector2 dimensions) {
+        super(topLeftCorner, dimensions, null);
+        textRenderable.setColor(Color.WHITE);
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * Shows a message.
+     * @param message Message to show.
+     */
+    public void show(String message) {
+        textRenderable.setString(message);
+        renderer().setRenderable(textRenderable);
+    }
+
+    /**
+     * Hides the prompt.
+     */
+    public void hide() {
+        renderer().setRenderable(null);
+    }
+
+    /**
+     * The prompt never takes part in collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+}
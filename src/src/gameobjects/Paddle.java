@@ -1,18 +1,20 @@
 package src.gameobjects;
 
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-
-import java.awt.event.KeyEvent;
+import src.paddle_controllers.PaddleController;
 
 /**
- * Represents the paddle in Bricker game.
+ * Represents the paddle in Bricker game. Which way it moves is decided by its controller.
  */
 public class Paddle extends GameObject {
-    private static final float MOVEMENT_SPEED = 500;
-    private final UserInputListener inputListener;
+    /** Speed of the paddle while moving, in pixels per second. */
+    public static final float MOVEMENT_SPEED = 500;
+    // precomputed, so steering allocates nothing
+    private static final Vector2 LEFT_VELOCITY = Vector2.LEFT.mult(MOVEMENT_SPEED);
+    private static final Vector2 RIGHT_VELOCITY = Vector2.RIGHT.mult(MOVEMENT_SPEED);
+    private final PaddleController controller;
     private final float screenWidth;
     private int minDistanceFromEdge;
 
@@ -24,14 +26,14 @@ public class Paddle extends GameObject {
      * @param dimensions    Width and height in window coordinates.
      * @param renderable    The renderable representing the object. Can be null, in which case object will not
      *                      be rendered.
-     * @param inputListener Object to read input from keyboard.
+     * @param controller Object deciding which way the paddle moves.
      * @param windowDimensions Vector of dimensions of window housing game.
      * @param minDistanceFromEdge Minimum distance from edge paddle is to be allowed on the sides.
      */
     public Paddle(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
-                  UserInputListener inputListener, Vector2 windowDimensions, int minDistanceFromEdge) {
+                  PaddleController controller, Vector2 windowDimensions, int minDistanceFromEdge) {
         super(topLeftCorner, dimensions, renderable);
-        this.inputListener = inputListener;
+        this.controller = controller;
         this.screenWidth = windowDimensions.x();
         this.minDistanceFromEdge = minDistanceFromEdge;
     }
@@ -48,13 +50,16 @@ public class Paddle extends GameObject {
         boolean tooFarRight = getTopLeftCorner().x() >=
                 screenWidth - minDistanceFromEdge - getDimensions().x();
 
-        Vector2 movementDir = Vector2.ZERO;
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT) && !(tooFarLeft)) {
-            movementDir = movementDir.add(Vector2.LEFT);
+        int movementDir = controller.steer(this, deltaTime);
+        if ((movementDir < 0 && tooFarLeft) || (movementDir > 0 && tooFarRight)) {
+            movementDir = 0;
         }
-        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT) && !(tooFarRight)) {
-            movementDir = movementDir.add(Vector2.RIGHT);
+        if (movementDir < 0) {
+            setVelocity(LEFT_VELOCITY);
+        } else if (movementDir > 0) {
+            setVelocity(RIGHT_VELOCITY);
+        } else {
+            setVelocity(Vector2.ZERO);
         }
-        setVelocity(movementDir.mult(MOVEMENT_SPEED));
     }
 }
@@ -0,0 +1,55 @@
+package src.gameobjects;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import src.power_ups.PowerUpType;
+
+/**
+ * A power-up falling from a broken brick, until the paddle catches it or it leaves the window. Power-ups
+ * are pooled and re-armed for every drop. They are caught by an explicit test against the paddle, so they
+ * never take part in the engine's collisions.
+ */
+public class PowerUp extends GameObject {
+
+    private PowerUpType type;
+
+    /**
+     * Construct a new power-up.
+     * @param dimensions Width and height in window coordinates.
+     */
+    public PowerUp(Vector2 dimensions) {
+        super(Vector2.ZERO, dimensions, null);
+    }
+
+    /**
+     * Re-arms a pooled power-up for a new drop.
+     * @param center Where the power-up starts falling, in window coordinates.
+     * @param velocity Velocity of the fall.
+     * @param type Kind of power-up.
+     * @param renderable The renderable representing the power-up.
+     */
+    public void rearm(Vector2 center, Vector2 velocity, PowerUpType type, Renderable renderable) {
+        this.type = type;
+        setCenter(center);
+        setVelocity(velocity);
+        renderer().setRenderable(renderable);
+    }
+
+    /**
+     * @return Kind of power-up.
+     */
+    public PowerUpType type() {
+        return type;
+    }
+
+    /**
+     * Power-ups never take part in the engine's collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package src.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+
+/**
+ * Image reader stand-in for headless runs. No image is decoded; every game object is created with a
+ * null renderable, and so is never rendered.
+ */
+public class HeadlessImageReader extends ImageReader {
+
+    /**
+     * Construct a new headless image reader.
+     * @param windowController Controller of the (virtual) window housing the game.
+     */
+    public HeadlessImageReader(WindowController windowController) {
+        super(windowController);
+    }
+
+    /**
+     * @param imageFilePath Ignored.
+     * @param useTopLeftPixelAsTransparentColor Ignored.
+     * @return null, so that objects using the image are not rendered.
+     */
+    @Override
+    public ImageRenderable readImage(String imageFilePath, boolean useTopLeftPixelAsTransparentColor) {
+        return null;
+    }
+}
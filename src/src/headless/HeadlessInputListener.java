@@ -0,0 +1,69 @@
+package src.headless;
+
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Input listener stand-in for headless runs. Keys are pressed and released programmatically rather than
+ * by a user.
+ */
+public class HeadlessInputListener implements UserInputListener {
+
+    private final Set<Integer> pressedKeys = new HashSet<>();
+
+    /**
+     * Mark a key as held down until it is released.
+     * @param keyCode Code of key, as defined in java.awt.event.KeyEvent.
+     */
+    public void press(int keyCode) {
+        pressedKeys.add(keyCode);
+    }
+
+    /**
+     * Mark a key as no longer held down.
+     * @param keyCode Code of key, as defined in java.awt.event.KeyEvent.
+     */
+    public void release(int keyCode) {
+        pressedKeys.remove(keyCode);
+    }
+
+    /**
+     * Release all keys.
+     */
+    public void releaseAll() {
+        pressedKeys.clear();
+    }
+
+    @Override
+    public boolean isKeyPressed(int keyCode) {
+        return pressedKeys.contains(keyCode);
+    }
+
+    @Override
+    public Set<Integer> pressedKeys() {
+        return pressedKeys;
+    }
+
+    @Override
+    public boolean wasKeyPressedThisFrame(int keyCode) {
+        return false;
+    }
+
+    @Override
+    public boolean wasKeyReleasedThisFrame(int keyCode) {
+        return false;
+    }
+
+    @Override
+    public boolean isMouseButtonPressed(int button) {
+        return false;
+    }
+
+    @Override
+    public Vector2 getMousePos() {
+        return Vector2.ZERO;
+    }
+}
@@ -0,0 +1,144 @@
+package src.headless;
+
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.util.Vector2;
+import src.BrickerGameManager;
+import src.paddle_controllers.BotSkill;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Runs the Bricker game logic without a window, stepping it on a fixed timestep as fast as the CPU
+ * allows. Nothing is rendered and no dialog ever blocks.
+ */
+public class HeadlessRunner {
+
+    /** Simulated seconds per frame, matching the target framerate of the windowed game. */
+    public static final float FIXED_DELTA_TIME = 1f / BrickerGameManager.TARGET_FRAMERATE;
+    private static final long DEFAULT_FRAMES = 100_000;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final BrickerGameManager gameManager;
+    private final HeadlessWindowController windowController;
+    private final HeadlessInputListener inputListener;
+    private final ImageReader imageReader;
+    private final SoundReader soundReader;
+    private final boolean playAgain;
+    private long framesRun = 0;
+
+    /**
+     * Construct a new headless runner.
+     * @param gameManager Game to be run.
+     * @param windowDimensions Dimensions the game was created with.
+     * @param playAgain Whether to start a new game whenever one ends.
+     */
+    public HeadlessRunner(BrickerGameManager gameManager, Vector2 windowDimensions, boolean playAgain) {
+        this.gameManager = gameManager;
+        this.playAgain = playAgain;
+        gameManager.setSoundEnabled(false);
+        windowController = new HeadlessWindowController(windowDimensions, playAgain);
+        inputListener = new HeadlessInputListener();
+        imageReader = new HeadlessImageReader(windowController);
+        soundReader = new HeadlessSoundReader(windowController);
+    }
+
+    /**
+     * Initializes the game, exactly as the windowed engine does before its first frame.
+     */
+    public void start() {
+        gameManager.initializeGame(imageReader, soundReader, inputListener, windowController);
+    }
+
+    /**
+     * Runs a single frame of the game. Prompts shown by the game are answered at once: lost lives are
+     * continued, and a finished game is played again or closed according to the runner's setting.
+     * @return false if the game has asked to close, true otherwise.
+     */
+    public boolean step() {
+        answerPrompt();
+        return step(FIXED_DELTA_TIME);
+    }
+
+    /**
+     * Runs a single frame of the given duration with the keys as currently pressed; prompts are not
+     * answered automatically.
+     * @param deltaTime Duration of the frame, in seconds.
+     * @return false if the game has asked to close, true otherwise.
+     */
+    public boolean step(float deltaTime) {
+        gameManager.update(deltaTime);
+        framesRun++;
+        if (windowController.consumeResetRequest()) {
+            start();
+        }
+        return !windowController.isCloseRequested();
+    }
+
+    /**
+     * Holds down the key answering the game's current prompt, if any.
+     */
+    private void answerPrompt() {
+        inputListener.release(KeyEvent.VK_ENTER);
+        inputListener.release(KeyEvent.VK_Y);
+        inputListener.release(KeyEvent.VK_N);
+        switch (gameManager.getState()) {
+            case LIFE_LOST:
+                inputListener.press(KeyEvent.VK_ENTER);
+                break;
+            case GAME_OVER:
+                inputListener.press(playAgain ? KeyEvent.VK_Y : KeyEvent.VK_N);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Runs frames until the given number has been reached or the game asks to close.
+     * @param maxFrames Maximal number of frames to run.
+     * @return Number of frames actually run.
+     */
+    public long run(long maxFrames) {
+        long firstFrame = framesRun;
+        while (framesRun - firstFrame < maxFrames && step()) {
+            // keep stepping
+        }
+        return framesRun - firstFrame;
+    }
+
+    /**
+     * @return Input listener driving the game, for scripting paddle movement.
+     */
+    public HeadlessInputListener inputListener() {
+        return inputListener;
+    }
+
+    /**
+     * @return Total number of frames run so far.
+     */
+    public long framesRun() {
+        return framesRun;
+    }
+
+    /**
+     * Runs a headless game and reports the simulation rate.
+     * @param args Optional number of frames to run, optionally followed by the skill ("good" or "bad") of
+     *             a bot to play the paddle. Without a bot the paddle stands still.
+     */
+    public static void main(String[] args) {
+        long frames = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_FRAMES;
+        BrickerGameManager gameManager = new BrickerGameManager(BrickerGameManager.WINDOW_TITLE,
+                BrickerGameManager.WINDOW_DIMENSIONS);
+        if (args.length > 1) {
+            gameManager.setBotSkill(BotSkill.valueOf(args[1].toUpperCase()));
+        }
+        HeadlessRunner runner = new HeadlessRunner(gameManager, BrickerGameManager.WINDOW_DIMENSIONS, true);
+        runner.start();
+        long startTime = System.nanoTime();
+        long framesRun = runner.run(frames);
+        double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+        System.out.printf("Simulated %d frames (%.1f game seconds) in %.3f s: %.0f frames/s%n", framesRun,
+                framesRun * FIXED_DELTA_TIME, seconds, framesRun / seconds);
+    }
+}
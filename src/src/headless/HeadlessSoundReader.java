@@ -0,0 +1,28 @@
+package src.headless;
+
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.WindowController;
+
+/**
+ * Sound reader stand-in for headless runs. No sound file is decoded and nothing is ever played.
+ */
+public class HeadlessSoundReader extends SoundReader {
+
+    /**
+     * Construct a new headless sound reader.
+     * @param windowController Controller of the (virtual) window housing the game.
+     */
+    public HeadlessSoundReader(WindowController windowController) {
+        super(windowController);
+    }
+
+    /**
+     * @param soundFilePath Ignored.
+     * @return null, so that objects using the sound stay silent.
+     */
+    @Override
+    public Sound readSound(String soundFilePath) {
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package src.headless;
+
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+/**
+ * Window controller stand-in for running Bricker without a window. Dialogs are answered immediately
+ * instead of blocking, and reset/close requests are recorded for the headless runner to act on.
+ */
+public class HeadlessWindowController implements WindowController {
+
+    private final Vector2 windowDimensions;
+    private final boolean playAgain;
+    private int targetFramerate;
+    private boolean resetRequested = false;
+    private boolean closeRequested = false;
+
+    /**
+     * Construct a new headless window controller.
+     * @param windowDimensions Dimensions of the (virtual) window housing the game.
+     * @param playAgain Answer to be given to every yes/no dialog the game opens.
+     */
+    public HeadlessWindowController(Vector2 windowDimensions, boolean playAgain) {
+        this.windowDimensions = windowDimensions;
+        this.playAgain = playAgain;
+    }
+
+    @Override
+    public void setTargetFramerate(int targetFramerate) {
+        this.targetFramerate = targetFramerate; // recorded only, headless runs are not capped.
+    }
+
+    @Override
+    public int getTargetFramerate() {
+        return targetFramerate;
+    }
+
+    @Override
+    public Vector2 getWindowDimensions() {
+        return windowDimensions;
+    }
+
+    @Override
+    public void showMessageBox(String msg) {
+    }
+
+    @Override
+    public boolean openYesNoDialog(String msg) {
+        return playAgain;
+    }
+
+    @Override
+    public void closeWindow() {
+        closeRequested = true;
+    }
+
+    @Override
+    public void resetGame() {
+        resetRequested = true;
+    }
+
+    /**
+     * @return true if the game asked to be reset since the last call to this method.
+     */
+    public boolean consumeResetRequest() {
+        boolean requested = resetRequested;
+        resetRequested = false;
+        return requested;
+    }
+
+    /**
+     * @return true if the game asked for its window to be closed.
+     */
+    public boolean isCloseRequested() {
+        return closeRequested;
+    }
+}
@@ -0,0 +1,138 @@
+package src.levels;
+
+import java.util.Arrays;
+
+/**
+ * Layout of the bricks of a level: a grid of cells, each either holding a brick or empty. Cells are
+ * packed one bit each, row-major, so a level of a million bricks takes 125 KB.
+ */
+public class Level {
+
+    /** Greatest number of cells of a level, so that every cell has an int index. */
+    public static final long MAX_CELLS = Integer.MAX_VALUE;
+
+    private final int rows;
+    private final int cols;
+    private final long[] cells;
+
+    /**
+     * Construct a new level from packed cells.
+     * @param rows Number of rows of cells.
+     * @param cols Number of cells in each row.
+     * @param cells Bits of the cells, row-major; bit (i % 64) of word (i / 64) is set if cell i holds a
+     *              brick. Owned by the level from now on.
+     */
+    public Level(int rows, int cols, long[] cells) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Level must have at least one cell, got " + rows + "x" + cols);
+        }
+        if (cells.length != wordsFor(rows, cols)) {
+            throw new IllegalArgumentException("Expected " + wordsFor(rows, cols) + " words of cells, got " +
+                    cells.length);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+    }
+
+    /**
+     * @param rows Number of rows of cells.
+     * @param cols Number of cells in each row.
+     * @return A level with a brick in every cell.
+     */
+    public static Level full(int rows, int cols) {
+        long[] cells = new long[wordsFor(rows, cols)];
+        int numCells = rows * cols; // wordsFor has checked it fits
+        for (int word = 0; word < cells.length; word++) {
+            int bitsInWord = Math.min(Long.SIZE, numCells - word * Long.SIZE);
+            cells[word] = bitsInWord == Long.SIZE ? -1L : (1L << bitsInWord) - 1;
+        }
+        return new Level(rows, cols, cells);
+    }
+
+    /**
+     * @param rows Number of rows of cells.
+     * @param cols Number of cells in each row.
+     * @return Number of 64-bit words needed to pack the cells of a level of the given size.
+     * @throws IllegalArgumentException If the level would have more than MAX_CELLS cells.
+     */
+    public static int wordsFor(int rows, int cols) {
+        long numCells = (long) rows * cols;
+        if (numCells > MAX_CELLS) {
+            throw new IllegalArgumentException("Level of " + rows + "x" + cols + " has more than " +
+                    MAX_CELLS + " cells");
+        }
+        return (int) ((numCells + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * @return Number of rows of cells.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Number of cells in each row.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @param row Row of cell.
+     * @param col Column of cell.
+     * @return true if the cell holds a brick.
+     */
+    public boolean hasBrick(int row, int col) {
+        int cell = row * cols + col;
+        return (cells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return Number of bricks in the level.
+     */
+    public int brickCount() {
+        int count = 0;
+        for (long word : cells) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The packed cells, as described in the constructor. Must not be modified.
+     */
+    long[] cells() {
+        return cells;
+    }
+
+    /**
+     * @param other Object to compare with.
+     * @return true if other is a level of the same size, with bricks in the same cells.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Level)) {
+            return false;
+        }
+        Level level = (Level) other;
+        return rows == level.rows && cols == level.cols && Arrays.equals(cells, level.cells);
+    }
+
+    /**
+     * @return Hash of the level's size and cells.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + cols) + Arrays.hashCode(cells);
+    }
+
+    /**
+     * Copies the packed cells into a given array.
+     * @param destination Array of at least wordsFor(rows(), cols()) words.
+     */
+    public void copyCells(long[] destination) {
+        System.arraycopy(cells, 0, destination, 0, cells.length);
+    }
+}
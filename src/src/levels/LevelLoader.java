@@ -0,0 +1,170 @@
+package src.levels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes level files. Levels are authored as text, one line per row of bricks, with '#' for a
+ * brick and '.' (or a space) for an empty cell. They are shipped in a compact binary form, read through
+ * a memory-mapped file:
+ * <pre>
+ *   int magic, int version, int rows, int cols, long[wordsFor(rows, cols)] cells
+ * </pre>
+ * All values are big-endian, and cells are packed as in {@link Level}.
+ */
+public class LevelLoader {
+
+    /** Marks a file as a binary Bricker level ("BRKL"). */
+    private static final int MAGIC = 0x42524B4C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final char BRICK_CHAR = '#';
+    private static final char EMPTY_CHAR = '.';
+
+    private LevelLoader() {
+    }
+
+    /**
+     * Loads a level, in binary or text form.
+     * @param path Level file.
+     * @return The level read.
+     * @throws IOException If the file could not be read or is not a valid level.
+     */
+    public static Level load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() >= Integer.BYTES && buffer.getInt(0) == MAGIC) {
+                return readBinary(buffer, path);
+            }
+        }
+        return readText(path);
+    }
+
+    /**
+     * Reads a level in binary form.
+     * @param buffer Contents of the level file.
+     * @param path Level file, for error messages.
+     * @return The level read.
+     * @throws IOException If the file is not a valid binary level.
+     */
+    private static Level readBinary(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IOException(path + " is truncated");
+        }
+        buffer.getInt(); // magic, already checked
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported level version " + version + " in " + path);
+        }
+        int rows = buffer.getInt();
+        int cols = buffer.getInt();
+        if (rows <= 0 || cols <= 0) {
+            throw new IOException("Invalid level size " + rows + "x" + cols + " in " + path);
+        }
+        checkSize(rows, cols, path);
+        int words = Level.wordsFor(rows, cols);
+        if (buffer.remaining() / Long.BYTES < words) { // checked before the cells are allocated
+            throw new IOException(path + " is truncated");
+        }
+        long[] cells = new long[words];
+        buffer.asLongBuffer().get(cells); // a bulk copy out of the mapping
+        return new Level(rows, cols, cells);
+    }
+
+    /**
+     * Reads a level in text form. Rows shorter than the longest are padded with empty cells.
+     * @param path Level file.
+     * @return The level read.
+     * @throws IOException If the file could not be read or holds an unexpected character.
+     */
+    private static Level readText(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        int cols = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+            String row = line.replaceAll("\\s+$", "");
+            if (!row.isEmpty()) {
+                lines.add(row);
+                cols = Math.max(cols, row.length());
+            }
+        }
+        if (lines.isEmpty()) {
+            throw new IOException(path + " holds no rows");
+        }
+        int rows = lines.size();
+        checkSize(rows, cols, path);
+        long[] cells = new long[Level.wordsFor(rows, cols)];
+        for (int row = 0; row < rows; row++) {
+            String line = lines.get(row);
+            for (int col = 0; col < line.length(); col++) {
+                char c = line.charAt(col);
+                if (c == BRICK_CHAR) {
+                    int cell = row * cols + col;
+                    cells[cell >>> 6] |= 1L << cell;
+                } else if (c != EMPTY_CHAR && c != ' ') {
+                    throw new IOException("Unexpected '" + c + "' at row " + (row + 1) + ", column " +
+                            (col + 1) + " of " + path);
+                }
+            }
+        }
+        return new Level(rows, cols, cells);
+    }
+
+    /**
+     * Rejects levels too big for every cell to have an int index.
+     * @param rows Number of rows of cells.
+     * @param cols Number of cells in each row.
+     * @param path Level file, for error messages.
+     * @throws IOException If the level has more than Level.MAX_CELLS cells.
+     */
+    private static void checkSize(int rows, int cols, Path path) throws IOException {
+        if ((long) rows * cols > Level.MAX_CELLS) {
+            throw new IOException("Level of " + rows + "x" + cols + " in " + path + " has more than " +
+                    Level.MAX_CELLS + " cells");
+        }
+    }
+
+    /**
+     * Writes a level in binary form.
+     * @param level Level to be written.
+     * @param path File to write, overwritten if it exists.
+     * @throws IOException If the file could not be written.
+     */
+    public static void writeBinary(Level level, Path path) throws IOException {
+        long[] cells = level.cells();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cells.length * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(level.rows()).putInt(level.cols());
+        buffer.asLongBuffer().put(cells);
+        buffer.rewind(); // the cells were put through a view, so the buffer is still just past the header
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Compiles a level from text to binary form.
+     * @param args Path of the text level, and path of the binary level to be written.
+     * @throws IOException If a level could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelLoader <text level> <binary level>");
+            return;
+        }
+        Level level = LevelLoader.load(Paths.get(args[0]));
+        writeBinary(level, Paths.get(args[1]));
+        System.out.printf("Wrote %dx%d level with %d bricks to %s%n", level.rows(), level.cols(),
+                level.brickCount(), args[1]);
+    }
+}
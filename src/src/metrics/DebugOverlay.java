@@ -0,0 +1,75 @@
+package src.metrics;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+
+/**
+ * On-screen line of frame metrics, for debugging. Refreshed a few times a second rather than every frame,
+ * so it is readable and costs next to nothing.
+ */
+public class DebugOverlay extends GameObject {
+
+    private static final float REFRESH_INTERVAL = 0.5f; // seconds
+    private static final double NANOS_PER_MILLI = 1e6;
+    private final FrameMetrics frameMetrics;
+    private final TextRenderable textRenderable = new TextRenderable("");
+    private boolean visible = false;
+    private float sinceRefresh = 0;
+
+    /**
+     * Construct a new, hidden debug overlay.
+     * @param topLeftCorner Position of the overlay, in window coordinates (pixels).
+     * @param dimensions Width and height in window coordinates.
+     * @param frameMetrics Metrics to display.
+     */
+    public DebugOverlay(Vector2 topLeftCorner, Vector2 dimensions, FrameMetrics frameMetrics) {
+        super(topLeftCorner, dimensions, null);
+        this.frameMetrics = frameMetrics;
+        textRenderable.setColor(Color.GREEN);
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * Shows the overlay if hidden, hides it if shown.
+     */
+    public void toggle() {
+        visible = !visible;
+        sinceRefresh = REFRESH_INTERVAL; // refresh immediately
+        renderer().setRenderable(visible ? textRenderable : null);
+    }
+
+    /**
+     * Refreshes the displayed metrics, if shown and due.
+     * @param deltaTime See parent.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        sinceRefresh += deltaTime;
+        if (!visible || sinceRefresh < REFRESH_INTERVAL) {
+            return;
+        }
+        sinceRefresh = 0;
+        textRenderable.setString(String.format("update %.2fms  collide %.2fms  logic %.2fms  " +
+                        "render %.2fms  p99 | %.0f B/frame  %.1f hits/frame",
+                frameMetrics.histogram(FramePhase.OBJECT_UPDATE).percentile(99) / NANOS_PER_MILLI,
+                frameMetrics.histogram(FramePhase.COLLISIONS).percentile(99) / NANOS_PER_MILLI,
+                frameMetrics.histogram(FramePhase.GAME_LOGIC).percentile(99) / NANOS_PER_MILLI,
+                frameMetrics.histogram(FramePhase.RENDER).percentile(99) / NANOS_PER_MILLI,
+                frameMetrics.getMeanAllocatedBytesPerFrame(), frameMetrics.getMeanCollisionsPerFrame()));
+    }
+
+    /**
+     * The overlay never takes part in collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+}
@@ -0,0 +1,202 @@
+package src.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Per-frame instrumentation of the game loop: durations of each frame phase, bytes allocated and
+ * collisions handled per frame, all kept in histograms. Meant to be always on: a frame costs a handful of
+ * clock reads and array increments.
+ * <p>
+ * Metrics are recorded on the game thread and may be read or reset over JMX from any other. Recording,
+ * reading and resetting are synchronized on the metrics, so no read sees a frame half recorded; the lock
+ * is taken once or twice a frame and is uncontended but for JMX calls.
+ */
+public class FrameMetrics implements FrameMetricsMXBean {
+
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final String OBJECT_NAME = "src.metrics:type=FrameMetrics";
+
+    private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[FramePhase.values().length];
+    private final long[] phaseNanos = new long[FramePhase.values().length]; // of the current frame
+    private final LatencyHistogram allocationHistogram = new LatencyHistogram();
+    private final LatencyHistogram collisionHistogram = new LatencyHistogram();
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long frameAllocationStart;
+    private int frameCollisions = 0;
+    private long renderStart = -1;
+
+    /**
+     * Construct new, empty frame metrics.
+     */
+    public FrameMetrics() {
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new LatencyHistogram();
+        }
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        threadBean = bean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported() ?
+                (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, so they can be read with JMX tools. Failure
+     * to register is ignored; the metrics work regardless.
+     */
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            // JMX is a convenience only.
+        }
+    }
+
+    /**
+     * Starts measuring a frame.
+     * @return Start time of frame, in nanoseconds, to pass to endPhase.
+     */
+    public long beginFrame() {
+        long now = System.nanoTime();
+        if (threadBean != null) {
+            frameAllocationStart = threadBean.getCurrentThreadAllocatedBytes();
+        }
+        return now;
+    }
+
+    /**
+     * Adds the time since phaseStart to the given phase of the current frame.
+     * @param phase Phase just ended.
+     * @param phaseStart Start time of phase, in nanoseconds.
+     * @return End time of phase, to be used as the start of the next.
+     */
+    public long endPhase(FramePhase phase, long phaseStart) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        return now;
+    }
+
+    /**
+     * Counts collisions handled in the current frame.
+     * @param collisions Number of collisions.
+     */
+    public void addCollisions(int collisions) {
+        frameCollisions += collisions;
+    }
+
+    /**
+     * Ends measuring a frame, recording its phases, allocation and collisions.
+     */
+    public synchronized void endFrame() {
+        if (threadBean != null) {
+            allocationHistogram.record(threadBean.getCurrentThreadAllocatedBytes() - frameAllocationStart);
+        }
+        collisionHistogram.record(frameCollisions);
+        frameCollisions = 0;
+        for (FramePhase phase : FramePhase.values()) {
+            if (phase != FramePhase.RENDER) { // recorded when the frame is drawn, after its update
+                phaseHistograms[phase.ordinal()].record(phaseNanos[phase.ordinal()]);
+            }
+            phaseNanos[phase.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * Starts timing the drawing of a frame. Called by the engine drawing the first RenderMarker.
+     */
+    public void beginRender() {
+        renderStart = System.nanoTime();
+    }
+
+    /**
+     * Ends timing the drawing of a frame, recording its duration. Called by the engine drawing the last
+     * RenderMarker.
+     */
+    public synchronized void endRender() {
+        if (renderStart >= 0) {
+            phaseHistograms[FramePhase.RENDER.ordinal()].record(System.nanoTime() - renderStart);
+            renderStart = -1;
+        }
+    }
+
+    /**
+     * @param phase A frame phase.
+     * @return Histogram of the phase's durations, in nanoseconds. Read it on the game thread only.
+     */
+    public LatencyHistogram histogram(FramePhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * Writes the metrics as CSV, one row per frame phase plus one each for allocation and collisions.
+     * @param path File to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public synchronized void writeCsv(Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            out.println("metric,unit,count,mean,p50,p90,p99,p999,max");
+            for (FramePhase phase : FramePhase.values()) {
+                writeCsvRow(out, phase.name(), "ns", histogram(phase));
+            }
+            if (threadBean != null) {
+                writeCsvRow(out, "ALLOCATION", "bytes", allocationHistogram);
+            }
+            writeCsvRow(out, "COLLISIONS", "count", collisionHistogram);
+        }
+    }
+
+    private static void writeCsvRow(PrintWriter out, String metric, String unit, LatencyHistogram histogram) {
+        out.printf("%s,%s,%d,%.1f,%d,%d,%d,%d,%d%n", metric, unit, histogram.count(), histogram.mean(),
+                histogram.percentile(50), histogram.percentile(90), histogram.percentile(99),
+                histogram.percentile(99.9), histogram.max());
+    }
+
+    @Override
+    public synchronized long getFrameCount() {
+        return collisionHistogram.count();
+    }
+
+    @Override
+    public synchronized double getMeanAllocatedBytesPerFrame() {
+        return threadBean == null ? -1 : allocationHistogram.mean();
+    }
+
+    @Override
+    public synchronized double getMeanCollisionsPerFrame() {
+        return collisionHistogram.mean();
+    }
+
+    @Override
+    public synchronized String[] getPhaseSummaries() {
+        FramePhase[] phases = FramePhase.values();
+        String[] summaries = new String[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            LatencyHistogram histogram = phaseHistograms[i];
+            summaries[i] = String.format("%s mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", phases[i],
+                    histogram.mean() / NANOS_PER_MICRO, histogram.percentile(50) / NANOS_PER_MICRO,
+                    histogram.percentile(99) / NANOS_PER_MICRO, histogram.max() / NANOS_PER_MICRO);
+        }
+        return summaries;
+    }
+
+    @Override
+    public synchronized double getPhasePercentileMicros(String phase, double percentile) {
+        return histogram(FramePhase.valueOf(phase)).percentile(percentile) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (LatencyHistogram histogram : phaseHistograms) {
+            histogram.reset();
+        }
+        allocationHistogram.reset();
+        collisionHistogram.reset();
+    }
+}
@@ -0,0 +1,39 @@
+package src.metrics;
+
+/**
+ * Management interface exposing frame metrics of a running game over JMX.
+ */
+public interface FrameMetricsMXBean {
+
+    /**
+     * @return Number of frames measured.
+     */
+    long getFrameCount();
+
+    /**
+     * @return Mean bytes allocated by the game thread per frame, or -1 if the JVM cannot tell.
+     */
+    double getMeanAllocatedBytesPerFrame();
+
+    /**
+     * @return Mean number of collisions handled per frame.
+     */
+    double getMeanCollisionsPerFrame();
+
+    /**
+     * @return One line per frame phase, with its mean, median, 99th percentile and maximum durations.
+     */
+    String[] getPhaseSummaries();
+
+    /**
+     * @param phase Name of a FramePhase.
+     * @param percentile Percentile wanted, between 0 and 100.
+     * @return Duration of phase at the given percentile, in microseconds.
+     */
+    double getPhasePercentileMicros(String phase, double percentile);
+
+    /**
+     * Forgets everything measured so far.
+     */
+    void reset();
+}
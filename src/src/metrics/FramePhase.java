@@ -0,0 +1,18 @@
+package src.metrics;
+
+/**
+ * Phases of a Bricker frame whose durations are measured.
+ */
+public enum FramePhase {
+    /** The engine's update of all game objects, including its own collision pass. */
+    OBJECT_UPDATE,
+    /** The game's own collision passes: swept balls, brick grid and removal of broken bricks. */
+    COLLISIONS,
+    /** Game rules: checkLifeLost and checkGameEnd. */
+    GAME_LOGIC,
+    /**
+     * The engine's drawing of the frame, from the first object drawn to the last. The wait for the next
+     * frame is not included. Nothing is recorded when the game runs headless.
+     */
+    RENDER
+}
@@ -0,0 +1,106 @@
+package src.metrics;
+
+/**
+ * Histogram of non-negative values (typically nanoseconds) with logarithmic buckets, each power of two
+ * split into 16 linear sub-buckets, as in HDR histograms. Recording is a few arithmetic operations and
+ * an array increment, and any percentile is reported to within about 6% of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // values below this are exact
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF +
+            SUB_BUCKET_HALF;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    /**
+     * Records a value.
+     * @param value Value to record. Negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * @param percentile Percentile wanted, between 0 and 100.
+     * @return Upper bound of the bucket holding the given percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return Number of values recorded.
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * @return Mean of values recorded, or 0 if nothing was recorded.
+     */
+    public double mean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * @return Largest value recorded.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Forgets all recorded values.
+     */
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * @return Index of bucket holding value.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // shift so the value's top SUB_BUCKET_BITS bits remain, i.e. into [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * @return Largest value held by bucket at index.
+     */
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
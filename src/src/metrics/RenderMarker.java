@@ -0,0 +1,44 @@
+package src.metrics;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
+import danogl.util.Vector2;
+
+/**
+ * Invisible object whose drawing marks the start or the end of the engine's drawing of a frame, so that
+ * FrameMetrics can time rendering apart from the wait for the next frame. Markers are placed in layers
+ * below and above all of the game's, so the engine draws them first and last.
+ */
+public class RenderMarker extends GameObject {
+
+    /** Layer of the marker of the start of rendering, below every other. */
+    public static final int FIRST_LAYER = Layer.BACKGROUND - 1;
+    /** Layer of the marker of the end of rendering, above every other. */
+    public static final int LAST_LAYER = Layer.UI + 1;
+    private static final Vector2 DIMENSIONS = Vector2.of(1, 1); // nothing is drawn in it
+
+    /**
+     * Construct a new render marker.
+     * @param frameMetrics Metrics to record rendering time into.
+     * @param isStart true to mark the start of rendering, false to mark its end.
+     */
+    public RenderMarker(FrameMetrics frameMetrics, boolean isStart) {
+        super(Vector2.ZERO, DIMENSIONS, isStart ?
+                (g, topLeftCorner, dimensions, rotation, flippedH, flippedV, opaqueness) ->
+                        frameMetrics.beginRender() :
+                (g, topLeftCorner, dimensions, rotation, flippedH, flippedV, opaqueness) ->
+                        frameMetrics.endRender());
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * The marker never takes part in collisions.
+     * @param other See parent.
+     * @return false.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+}
@@ -0,0 +1,168 @@
+package src.paddle_controllers;
+
+import src.gameobjects.Ball;
+import src.gameobjects.Paddle;
+
+import java.util.Random;
+
+/**
+ * Moves the paddle by itself, to catch the ball, so that games can run unattended. The point at which a
+ * ball will come down to the paddle is predicted in closed form, folding its path at the side walls and
+ * ceiling and bending it by the ball's gravity, and is recomputed only when the ball changes course, never
+ * simulated ahead frame by frame.
+ * Bricks the ball may hit on its way are not foreseen; hitting one changes its course, and the landing
+ * point is predicted anew.
+ */
+public class BotController implements PaddleController {
+
+    private static final int NO_BALL = -1;
+
+    private final BotSkill skill;
+    private final Ball[] balls;
+    private final Random random;
+    private final float leftWall;
+    private final float rightWall;
+    private final float ceiling;
+    private float[] landingX = new float[0];
+    private float[] aimOffset = new float[0];
+    private float[] courseChangedAt = new float[0];
+    private Ball[] seenBall = new Ball[0];
+    private int[] seenVersion = new int[0];
+    private float clock = 0;
+    private float aimX = Float.NaN; // paddle center the bot moves towards
+
+    /**
+     * Construct a new bot controller.
+     * @param skill How well the bot plays.
+     * @param balls Balls to catch. The array may be refilled with other balls, e.g. on a new game.
+     * @param random Source of the bot's aiming errors.
+     * @param windowWidth Width of the window.
+     * @param borderWidth Width of the walls on the window's sides and top.
+     */
+    public BotController(BotSkill skill, Ball[] balls, Random random, float windowWidth, float borderWidth) {
+        this.skill = skill;
+        this.balls = balls;
+        this.random = random;
+        this.leftWall = borderWidth;
+        this.rightWall = windowWidth - borderWidth;
+        this.ceiling = borderWidth;
+    }
+
+    @Override
+    public int steer(Paddle paddle, float deltaTime) {
+        clock += deltaTime;
+        if (landingX.length != balls.length) {
+            resize(balls.length);
+        }
+        float paddleTop = paddle.getTopLeftCorner().y();
+        float paddleWidth = paddle.getDimensions().x();
+        int target = NO_BALL;
+        float soonest = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < balls.length; i++) {
+            Ball ball = balls[i];
+            if (ball == null) {
+                continue;
+            }
+            float halfWidth = ball.getDimensions().x() / 2;
+            float halfHeight = ball.getDimensions().y() / 2;
+            float x = ball.getTopLeftCorner().x() + halfWidth;
+            float y = ball.getTopLeftCorner().y() + halfHeight;
+            float velX = ball.getVelocity().x();
+            float velY = ball.getVelocity().y();
+            float gravity = ball.gravity();
+            float catchY = paddleTop - halfHeight;
+            if (y > catchY || (velY == 0 && gravity == 0)) {
+                continue; // past the paddle, or never coming down
+            }
+            float timeToLand = timeToLand(y, velY, gravity, ceiling + halfHeight, catchY);
+            // predicted again only if the ball changed course (or was replaced) since the last prediction.
+            if (ball != seenBall[i] || ball.velocityVersion() != seenVersion[i]) {
+                seenBall[i] = ball;
+                seenVersion[i] = ball.velocityVersion();
+                landingX[i] = fold(x + velX * timeToLand, leftWall + halfWidth, rightWall - halfWidth);
+                aimOffset[i] = (random.nextFloat() - 0.5f) * skill.aimError() * paddleWidth;
+                courseChangedAt[i] = clock;
+            }
+            if (timeToLand < soonest) {
+                soonest = timeToLand;
+                target = i;
+            }
+        }
+        if (target != NO_BALL && clock - courseChangedAt[target] >= skill.reactionTime()) {
+            aimX = landingX[target] + aimOffset[target];
+        }
+        if (Float.isNaN(aimX)) {
+            return 0;
+        }
+        float offset = aimX - (paddle.getTopLeftCorner().x() + paddleWidth / 2);
+        // within one frame's movement of the aim, moving would only overshoot it.
+        if (Math.abs(offset) <= Paddle.MOVEMENT_SPEED * deltaTime / 2) {
+            return 0;
+        }
+        return offset < 0 ? -1 : 1;
+    }
+
+    /**
+     * Time a ball takes to come down to a given height, bouncing off the ceiling first if it reaches it.
+     * @param y Current y-value of the ball's center.
+     * @param velY Vertical velocity of the ball.
+     * @param gravity Downward acceleration of the ball.
+     * @param ceilingY y-value of the ball's center when it touches the ceiling.
+     * @param catchY y-value of the ball's center when it touches the paddle.
+     * @return Time until the ball is at catchY, in seconds.
+     */
+    private static float timeToLand(float y, float velY, float gravity, float ceilingY, float catchY) {
+        if (gravity == 0) {
+            float distance = velY > 0 ? catchY - y : (y - ceilingY) + (catchY - ceilingY);
+            return distance / Math.abs(velY);
+        }
+        // the ball reaches the ceiling if the top of its arc is above it.
+        if (velY < 0 && y - velY * velY / (2 * gravity) <= ceilingY) {
+            float toCeiling = (-velY - (float) Math.sqrt(velY * velY - 2 * gravity * (y - ceilingY))) /
+                    gravity;
+            float bounced = -(velY + gravity * toCeiling); // heading down after the bounce
+            return toCeiling + timeToFall(bounced, gravity, catchY - ceilingY);
+        }
+        return timeToFall(velY, gravity, catchY - y);
+    }
+
+    /**
+     * @return Time a ball pulled down by gravity takes to descend a distance, starting at velocity velY.
+     */
+    private static float timeToFall(float velY, float gravity, float distance) {
+        return (-velY + (float) Math.sqrt(velY * velY + 2 * gravity * distance)) / gravity;
+    }
+
+    /**
+     * Folds an x-value, reached by a ball moving in a straight line as if there were no side walls, back
+     * between the walls, as the ball's reflections off them would.
+     * @param x Unfolded x-value of the ball's center.
+     * @param min Smallest x-value of the ball's center, touching the left wall.
+     * @param max Largest x-value of the ball's center, touching the right wall.
+     * @return The x-value at which the ball actually is.
+     */
+    public static float fold(float x, float min, float max) {
+        float width = max - min;
+        if (width <= 0) {
+            return min;
+        }
+        // reflections repeat every two widths: out and back.
+        float phase = (x - min) % (2 * width);
+        if (phase < 0) {
+            phase += 2 * width;
+        }
+        return phase <= width ? min + phase : min + 2 * width - phase;
+    }
+
+    /**
+     * Resizes the per-ball predictions, forgetting all of them.
+     * @param numBalls Number of balls.
+     */
+    private void resize(int numBalls) {
+        landingX = new float[numBalls];
+        aimOffset = new float[numBalls];
+        courseChangedAt = new float[numBalls];
+        seenBall = new Ball[numBalls];
+        seenVersion = new int[numBalls];
+    }
+}
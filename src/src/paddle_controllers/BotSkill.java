@@ -0,0 +1,38 @@
+package src.paddle_controllers;
+
+/**
+ * Skill levels of the bot paddle controller.
+ */
+public enum BotSkill {
+    /** Reacts at once and catches every ball it can reach. */
+    GOOD(0, 0.3f),
+    /** Reacts late and aims sloppily, so it drops balls now and then. */
+    BAD(0.35f, 0.9f);
+
+    private final float reactionTime;
+    private final float aimError;
+
+    /**
+     * @param reactionTime Seconds from a ball's change of course until the bot acts on it.
+     * @param aimError Greatest distance, as a fraction of the paddle's width, between where the bot aims
+     *                 to catch the ball and the paddle's center.
+     */
+    BotSkill(float reactionTime, float aimError) {
+        this.reactionTime = reactionTime;
+        this.aimError = aimError;
+    }
+
+    /**
+     * @return Seconds from a ball's change of course until the bot acts on it.
+     */
+    public float reactionTime() {
+        return reactionTime;
+    }
+
+    /**
+     * @return Greatest aiming offset, as a fraction of the paddle's width.
+     */
+    public float aimError() {
+        return aimError;
+    }
+}
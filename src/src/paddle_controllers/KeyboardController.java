@@ -0,0 +1,34 @@
+package src.paddle_controllers;
+
+import danogl.gui.UserInputListener;
+import src.gameobjects.Paddle;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Moves the paddle by the player's arrow keys.
+ */
+public class KeyboardController implements PaddleController {
+
+    private final UserInputListener inputListener;
+
+    /**
+     * Construct a new keyboard controller.
+     * @param inputListener Object to read input from keyboard.
+     */
+    public KeyboardController(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    @Override
+    public int steer(Paddle paddle, float deltaTime) {
+        int movementDir = 0;
+        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+            movementDir--;
+        }
+        if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+            movementDir++;
+        }
+        return movementDir;
+    }
+}
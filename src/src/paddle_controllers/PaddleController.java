@@ -0,0 +1,17 @@
+package src.paddle_controllers;
+
+import src.gameobjects.Paddle;
+
+/**
+ * Decides which way a paddle moves each frame.
+ */
+public interface PaddleController {
+
+    /**
+     * Called once per frame, by the paddle's update.
+     * @param paddle The paddle being controlled.
+     * @param deltaTime The time, in seconds, that passed since the last frame.
+     * @return -1 to move left, 1 to move right, or 0 to stand still.
+     */
+    int steer(Paddle paddle, float deltaTime);
+}
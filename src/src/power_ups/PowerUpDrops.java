@@ -0,0 +1,187 @@
+package src.power_ups;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import src.assets.AssetCache;
+import src.gameobjects.Paddle;
+import src.gameobjects.PowerUp;
+import src.util.ObjectPool;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Falling power-ups dropped by broken bricks. Drops are taken from a pool and returned to it when caught
+ * by the paddle or lost off the bottom of the window. Drops spawned during a step enter the game at its
+ * end, so no object is added while the engine iterates over the game's objects.
+ */
+public class PowerUpDrops {
+
+    private static final float FALL_SPEED = 150;
+    private static final Vector2 FALL_VELOCITY = Vector2.DOWN.mult(FALL_SPEED);
+
+    private final ObjectPool<PowerUp> pool;
+    private final List<PowerUp> pending = new ArrayList<>();
+    private final List<PowerUp> falling = new ArrayList<>();
+    private final AssetCache assetCache;
+    private final PowerUpEffects effects;
+    private final Paddle paddle;
+    private final float windowHeight;
+    private GameObjectCollection gameObjectCollection;
+
+    /**
+     * Construct a new set of drops, with none falling.
+     * @param dropDimensions Width and height of a falling power-up.
+     * @param assetCache Cache holding the power-ups' images.
+     * @param effects Applies the power-ups caught.
+     * @param paddle Paddle catching the power-ups.
+     * @param windowHeight Height of the window; drops falling below it are lost.
+     */
+    public PowerUpDrops(Vector2 dropDimensions, AssetCache assetCache, PowerUpEffects effects, Paddle paddle,
+                        float windowHeight) {
+        this.pool = new ObjectPool<>(() -> new PowerUp(dropDimensions));
+        this.assetCache = assetCache;
+        this.effects = effects;
+        this.paddle = paddle;
+        this.windowHeight = windowHeight;
+    }
+
+    /**
+     * Re-arms the drops for a new game, returning every drop to the pool.
+     * @param gameObjectCollection Collection of objects of the new game, drops are added to.
+     */
+    public void rearm(GameObjectCollection gameObjectCollection) {
+        this.gameObjectCollection = gameObjectCollection;
+        pending.clear();
+        falling.clear();
+        pool.releaseAll();
+    }
+
+    /**
+     * Removes every falling power-up from the game, returning it to the pool.
+     */
+    public void clear() {
+        for (PowerUp powerUp : falling) {
+            gameObjectCollection.removeGameObject(powerUp, Layer.FOREGROUND);
+        }
+        rearm(gameObjectCollection);
+    }
+
+    /**
+     * Drops a power-up, which starts falling at the end of the step.
+     * @param type Kind of power-up.
+     * @param center Where the power-up starts falling, in window coordinates.
+     */
+    public void spawn(PowerUpType type, Vector2 center) {
+        PowerUp powerUp = pool.acquire();
+        powerUp.rearm(center, FALL_VELOCITY, type, assetCache.image(type.imagePath(), true));
+        pending.add(powerUp);
+    }
+
+    /**
+     * Adds the drops spawned this step to the game, applies those the paddle caught and removes those that
+     * were caught or lost. Called once per step, after objects have moved.
+     */
+    public void step() {
+        enterPending();
+        float paddleLeft = paddle.getTopLeftCorner().x();
+        float paddleTop = paddle.getTopLeftCorner().y();
+        float paddleRight = paddleLeft + paddle.getDimensions().x();
+        float paddleBottom = paddleTop + paddle.getDimensions().y();
+        for (int i = falling.size() - 1; i >= 0; i--) {
+            PowerUp powerUp = falling.get(i);
+            float left = powerUp.getTopLeftCorner().x();
+            float top = powerUp.getTopLeftCorner().y();
+            boolean caught = left < paddleRight && left + powerUp.getDimensions().x() > paddleLeft &&
+                    top < paddleBottom && top + powerUp.getDimensions().y() > paddleTop;
+            if (caught) {
+                effects.apply(powerUp.type());
+            }
+            if (caught || top > windowHeight) {
+                gameObjectCollection.removeGameObject(powerUp, Layer.FOREGROUND);
+                falling.set(i, falling.get(falling.size() - 1)); // order of drops does not matter
+                falling.remove(falling.size() - 1);
+                pool.release(powerUp);
+            }
+        }
+    }
+
+    /**
+     * Adds the drops spawned since the last step to the game.
+     */
+    private void enterPending() {
+        for (PowerUp powerUp : pending) {
+            gameObjectCollection.addGameObject(powerUp, Layer.FOREGROUND);
+            falling.add(powerUp);
+        }
+        pending.clear();
+    }
+
+    /**
+     * @return Number of bytes writeState puts.
+     */
+    public int stateSize() {
+        return Integer.BYTES + size() * (2 * Float.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Writes the center and kind of every drop to a buffer. Must be called between steps.
+     * @param buffer Buffer to write to, from its position.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(size());
+        for (PowerUp powerUp : falling) {
+            writeDrop(buffer, powerUp);
+        }
+        for (PowerUp powerUp : pending) {
+            writeDrop(buffer, powerUp);
+        }
+    }
+
+    private static void writeDrop(ByteBuffer buffer, PowerUp powerUp) {
+        buffer.putFloat(powerUp.getCenter().x()).putFloat(powerUp.getCenter().y())
+                .put((byte) powerUp.type().ordinal());
+    }
+
+    /**
+     * Checks that a buffer holds drops readState can restore, reading past them.
+     * @param buffer Buffer to read from, from its position.
+     * @throws IllegalArgumentException If the number of drops is negative, or a drop is of no known kind.
+     */
+    public void checkState(ByteBuffer buffer) {
+        int numDrops = buffer.getInt();
+        if (numDrops < 0) {
+            throw new IllegalArgumentException("Negative number of power-up drops");
+        }
+        for (int i = 0; i < numDrops; i++) {
+            buffer.position(buffer.position() + 2 * Float.BYTES);
+            int type = buffer.get();
+            if (type < 0 || type >= PowerUpType.values().length) {
+                throw new IllegalArgumentException("No power-up of kind " + type);
+            }
+        }
+    }
+
+    /**
+     * Replaces the drops by ones written by writeState. They are in the game, falling, at once.
+     * @param buffer Buffer to read from, from its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        clear();
+        int numDrops = buffer.getInt();
+        for (int i = 0; i < numDrops; i++) {
+            Vector2 center = Vector2.of(buffer.getFloat(), buffer.getFloat());
+            spawn(PowerUpType.values()[buffer.get()], center);
+        }
+        enterPending();
+    }
+
+    /**
+     * @return Number of power-ups falling.
+     */
+    public int size() {
+        return falling.size() + pending.size();
+    }
+}
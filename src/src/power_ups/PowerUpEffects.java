@@ -0,0 +1,270 @@
+package src.power_ups;
+
+import danogl.util.Vector2;
+import src.gameobjects.Ball;
+import src.gameobjects.Paddle;
+import src.util.ObservableCounter;
+import src.util.TimingWheel;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Applies the effects of caught power-ups, and ends timed effects when they run out. Every timed effect
+ * is a task on a single timing wheel, ticked once per simulation step, so active effects cost nothing per
+ * step until they expire, however many there are. Effects of the same kind stack, up to a limit.
+ */
+public class PowerUpEffects {
+
+    private static final int WHEEL_SLOTS = 512; // over 8 seconds of 60 Hz steps per turn
+    private static final int MAX_LEVEL = 2; // greatest net number of stacked widen/narrow or quicken/slow
+    private static final float WIDTH_STEP = 1.5f;
+    private static final float SPEED_STEP = 1.3f;
+    private static final float GRAVITY = 300; // pixels per second squared
+
+    private final Paddle paddle;
+    private final Ball[] balls;
+    private final ObservableCounter livesCounter;
+    private final int maxLives;
+    private final float basePaddleWidth;
+    private final float baseBallSpeed;
+    private final TimingWheel timingWheel;
+    private int widen = 0;
+    private int narrow = 0;
+    private int quicken = 0;
+    private int slow = 0;
+    private int gravity = 0;
+    // expiry tasks are created once and shared by all effects of their kind.
+    private final Runnable endWiden = () -> {
+        widen--;
+        resizePaddle();
+    };
+    private final Runnable endNarrow = () -> {
+        narrow--;
+        resizePaddle();
+    };
+    private final Runnable endQuicken = () -> {
+        quicken--;
+        setBallSpeeds();
+    };
+    private final Runnable endSlow = () -> {
+        slow--;
+        setBallSpeeds();
+    };
+    private final Runnable endGravity = () -> {
+        gravity--;
+        pullBalls();
+        setBallSpeeds(); // speed gained while falling is lost with gravity
+    };
+
+    private final Runnable[] expiries = new Runnable[PowerUpType.values().length]; // by type, if timed
+
+    /**
+     * Construct a new power-up effects handler, with no effect active.
+     * @param paddle Paddle widened and narrowed.
+     * @param balls Balls sped up, slowed down and pulled down. The array may be refilled with other balls.
+     * @param livesCounter Counter of lives, given extra lives.
+     * @param maxLives Greatest number of lives extra lives may add up to.
+     * @param baseBallSpeed Speed of the balls when no effect is active.
+     * @param stepSeconds Duration of a simulation step, in seconds.
+     */
+    public PowerUpEffects(Paddle paddle, Ball[] balls, ObservableCounter livesCounter, int maxLives,
+                          float baseBallSpeed, float stepSeconds) {
+        this.paddle = paddle;
+        this.balls = balls;
+        this.livesCounter = livesCounter;
+        this.maxLives = maxLives;
+        this.basePaddleWidth = paddle.getDimensions().x();
+        this.baseBallSpeed = baseBallSpeed;
+        timingWheel = new TimingWheel(WHEEL_SLOTS, stepSeconds);
+        expiries[PowerUpType.WIDEN.ordinal()] = endWiden;
+        expiries[PowerUpType.NARROW.ordinal()] = endNarrow;
+        expiries[PowerUpType.QUICKEN.ordinal()] = endQuicken;
+        expiries[PowerUpType.SLOW.ordinal()] = endSlow;
+        expiries[PowerUpType.GRAVITY.ordinal()] = endGravity;
+    }
+
+    /**
+     * Applies the effect of a caught power-up, and schedules its end if it is timed.
+     * @param type Kind of power-up caught.
+     */
+    public void apply(PowerUpType type) {
+        switch (type) {
+            case WIDEN:
+                widen++;
+                resizePaddle();
+                timingWheel.schedule(type.durationSeconds(), endWiden);
+                break;
+            case NARROW:
+                narrow++;
+                resizePaddle();
+                timingWheel.schedule(type.durationSeconds(), endNarrow);
+                break;
+            case QUICKEN:
+                quicken++;
+                setBallSpeeds();
+                timingWheel.schedule(type.durationSeconds(), endQuicken);
+                break;
+            case SLOW:
+                slow++;
+                setBallSpeeds();
+                timingWheel.schedule(type.durationSeconds(), endSlow);
+                break;
+            case GRAVITY:
+                gravity++;
+                pullBalls();
+                timingWheel.schedule(type.durationSeconds(), endGravity);
+                break;
+            case EXTRA_LIFE:
+                if (livesCounter.value() < maxLives) {
+                    livesCounter.increment();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Advances the effects by one simulation step, ending the effects expiring on it. Gravity costs
+     * nothing per step: the engine integrates it into the balls' velocities as it moves them.
+     */
+    public void step() {
+        timingWheel.tick();
+    }
+
+    /**
+     * Ends every effect at once, e.g. when a new game begins.
+     */
+    public void reset() {
+        timingWheel.clear();
+        widen = 0;
+        narrow = 0;
+        quicken = 0;
+        slow = 0;
+        gravity = 0;
+        resizePaddle();
+        pullBalls();
+    }
+
+    /**
+     * @return Number of bytes writeState puts.
+     */
+    public int stateSize() {
+        return 6 * Integer.BYTES + timingWheel.size() * (Byte.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Writes the stacked effects, and the ticks left to each timed effect, to a buffer.
+     * @param buffer Buffer to write to, from its position.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(widen).putInt(narrow).putInt(quicken).putInt(slow).putInt(gravity)
+                .putInt(timingWheel.size());
+        timingWheel.forEachPending((task, ticks) -> buffer.put((byte) typeOf(task).ordinal()).putInt(ticks));
+    }
+
+    /**
+     * Checks that a buffer holds effects readState can restore, reading past them.
+     * @param buffer Buffer to read from, from its position.
+     * @throws IllegalArgumentException If a count of effects is negative, or a timed effect is of a kind
+     *                                  that does not expire or has no ticks left.
+     */
+    public void checkState(ByteBuffer buffer) {
+        for (int i = 0; i < 5; i++) { // the stacked effects
+            if (buffer.getInt() < 0) {
+                throw new IllegalArgumentException("Negative count of power-up effects");
+            }
+        }
+        int pending = buffer.getInt();
+        if (pending < 0) {
+            throw new IllegalArgumentException("Negative count of timed power-up effects");
+        }
+        for (int i = 0; i < pending; i++) {
+            int type = buffer.get();
+            if (type < 0 || type >= expiries.length || expiries[type] == null) {
+                throw new IllegalArgumentException("No timed power-up effect of kind " + type);
+            }
+            if (buffer.getInt() < 1) {
+                throw new IllegalArgumentException("Timed power-up effect with no ticks left");
+            }
+        }
+    }
+
+    /**
+     * Replaces the active effects by ones written by writeState. The paddle is resized about its center;
+     * balls are left as they are, as their saved velocities already carry the effects.
+     * @param buffer Buffer to read from, from its position.
+     */
+    public void readState(ByteBuffer buffer) {
+        timingWheel.clear();
+        widen = buffer.getInt();
+        narrow = buffer.getInt();
+        quicken = buffer.getInt();
+        slow = buffer.getInt();
+        gravity = buffer.getInt();
+        int pending = buffer.getInt();
+        for (int i = 0; i < pending; i++) {
+            Runnable expiry = expiries[buffer.get()];
+            timingWheel.scheduleTicks(buffer.getInt(), expiry);
+        }
+        resizePaddle();
+        pullBalls();
+    }
+
+    /**
+     * @return Kind of power-up a task ends.
+     */
+    private PowerUpType typeOf(Runnable expiry) {
+        for (PowerUpType type : PowerUpType.values()) {
+            if (expiries[type.ordinal()] == expiry) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Not an expiry task");
+    }
+
+    /**
+     * @return Number of timed effects active.
+     */
+    public int activeCount() {
+        return timingWheel.size();
+    }
+
+    /**
+     * Sets the paddle's width by the stacked widen and narrow effects, keeping its center in place.
+     */
+    private void resizePaddle() {
+        int level = Math.max(-MAX_LEVEL, Math.min(MAX_LEVEL, widen - narrow));
+        float width = basePaddleWidth * (float) Math.pow(WIDTH_STEP, level);
+        if (width == paddle.getDimensions().x()) {
+            return;
+        }
+        Vector2 center = paddle.getCenter();
+        paddle.setDimensions(Vector2.of(width, paddle.getDimensions().y()));
+        paddle.setCenter(center);
+    }
+
+    /**
+     * Pulls every ball down while gravity is active, and lets it go otherwise.
+     */
+    private void pullBalls() {
+        for (Ball ball : balls) {
+            ball.setGravity(gravity > 0 ? GRAVITY : 0);
+        }
+    }
+
+    /**
+     * Sets the speed of every ball by the stacked quicken and slow effects, keeping its direction.
+     */
+    private void setBallSpeeds() {
+        int level = Math.max(-MAX_LEVEL, Math.min(MAX_LEVEL, quicken - slow));
+        float speed = baseBallSpeed * (float) Math.pow(SPEED_STEP, level);
+        for (Ball ball : balls) {
+            Vector2 velocity = ball.getVelocity();
+            float currentSpeed = velocity.magnitude();
+            if (currentSpeed > 0 && currentSpeed != speed) {
+                ball.setVelocity(velocity.mult(speed / currentSpeed));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package src.power_ups;
+
+/**
+ * Kinds of power-ups dropped by broken bricks, and caught with the paddle.
+ */
+public enum PowerUpType {
+    /** Widens the paddle for a while. */
+    WIDEN("assets/buffWiden.png", 8),
+    /** Narrows the paddle for a while. */
+    NARROW("assets/buffNarrow.png", 8),
+    /** Speeds the balls up for a while. */
+    QUICKEN("assets/quicken.png", 6),
+    /** Slows the balls down for a while. */
+    SLOW("assets/slow.png", 6),
+    /** Pulls the balls downwards for a while. */
+    GRAVITY("assets/gravity.png", 5),
+    /** Gives an extra life, at once. */
+    EXTRA_LIFE("assets/heart.png", 0);
+
+    private final String imagePath;
+    private final float durationSeconds;
+
+    /**
+     * @param imagePath Path of the image of the falling power-up.
+     * @param durationSeconds How long the effect lasts once caught, or 0 if it is permanent.
+     */
+    PowerUpType(String imagePath, float durationSeconds) {
+        this.imagePath = imagePath;
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * @return Path of the image of the falling power-up.
+     */
+    public String imagePath() {
+        return imagePath;
+    }
+
+    /**
+     * @return How long the effect lasts once caught, or 0 if it is permanent.
+     */
+    public float durationSeconds() {
+        return durationSeconds;
+    }
+}
@@ -0,0 +1,34 @@
+package src.replay;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Layout of a recorded session log. A log is a header, holding the level and who played, followed by one
+ * fixed-size record per frame:
+ * <pre>
+ *   header: int magic, int version, long seed, int frame count, byte bot (0 for the player, else
+ *           1 + ordinal of the bot's BotSkill), int rows, int cols, long[Level.wordsFor(rows, cols)] cells
+ *   frame:  float deltaTime, byte key mask
+ * </pre>
+ * All values are big-endian, and cells are packed as in Level. Only the keys the game logic reads are
+ * recorded, one bit each; a bot's game ignores them, and is replayed by the same bot.
+ */
+final class SessionLog {
+
+    /** Marks a file as a Bricker session log ("BRKS"). */
+    static final int MAGIC = 0x42524B53;
+    /** Version of the log layout. */
+    static final int VERSION = 3;
+    /** Offset of the frame count within the header. */
+    static final int FRAME_COUNT_OFFSET = 16;
+    /** Size of the header before the level's cells, in bytes. */
+    static final int HEADER_SIZE = 29;
+    /** Size of a single frame record, in bytes. */
+    static final int FRAME_SIZE = Float.BYTES + Byte.BYTES;
+    /** Key codes recorded, indexed by their bit in the key mask. */
+    static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_ENTER, KeyEvent.VK_Y,
+            KeyEvent.VK_N};
+
+    private SessionLog() {
+    }
+}
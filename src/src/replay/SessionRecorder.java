@@ -0,0 +1,119 @@
+package src.replay;
+
+import danogl.gui.UserInputListener;
+import src.levels.Level;
+import src.paddle_controllers.BotSkill;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records a game session - the random seed, level and bot, and each frame's duration and key states -
+ * to a compact binary log (see {@link SessionLog}). The log is written through memory-mapped regions of
+ * the file, so recording a frame costs a few stores and never a system call.
+ */
+public class SessionRecorder implements Closeable {
+
+    private static final int REGION_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private int frameCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a log, overwriting any existing file, and writes its header.
+     * @param path File to record into.
+     * @param seed Seed of the game's random generator.
+     * @param level Level the game is played on.
+     * @param botSkill Skill of the bot playing the paddle, or null if the player does.
+     * @throws IOException If the file could not be created or mapped.
+     */
+    public SessionRecorder(Path path, long seed, Level level, BotSkill botSkill) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int words = Level.wordsFor(level.rows(), level.cols());
+        long[] cells = new long[words];
+        level.copyCells(cells);
+        ByteBuffer header = ByteBuffer.allocate(SessionLog.HEADER_SIZE + words * Long.BYTES);
+        header.putInt(SessionLog.MAGIC).putInt(SessionLog.VERSION).putLong(seed).putInt(0)
+                .put((byte) (botSkill == null ? 0 : botSkill.ordinal() + 1))
+                .putInt(level.rows()).putInt(level.cols());
+        header.asLongBuffer().put(cells);
+        header.rewind(); // the cells were put through a view
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        regionStart = channel.position(); // frames are mapped past the header
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+    }
+
+    /**
+     * Records a single frame. Must be called at the start of each update, before input is read. Frames
+     * after the recorder is closed are ignored.
+     * @param deltaTime Duration of the frame, in seconds.
+     * @param inputListener Input whose recorded keys are sampled.
+     */
+    public synchronized void recordFrame(float deltaTime, UserInputListener inputListener) {
+        if (closed) {
+            return;
+        }
+        byte keyMask = 0;
+        for (int i = 0; i < SessionLog.KEYS.length; i++) {
+            if (inputListener.isKeyPressed(SessionLog.KEYS[i])) {
+                keyMask |= 1 << i;
+            }
+        }
+        if (region.remaining() < SessionLog.FRAME_SIZE) {
+            nextRegion();
+        }
+        region.putFloat(deltaTime).put(keyMask);
+        frameCount++;
+    }
+
+    /**
+     * Maps the region of the file following the current one.
+     */
+    private void nextRegion() {
+        regionStart += region.position();
+        try {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Number of frames recorded so far.
+     */
+    public int frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Stops recording, writes the frame count and trims the unused end of the last region off the file.
+     * May be called from any thread, e.g. a shutdown hook: a frame being recorded is completed first, as
+     * the file must not be truncated under a store into its mapping. Closing again does nothing.
+     * @throws IOException If the log could not be completed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long size = regionStart + region.position();
+        region.force();
+        ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).putInt(0, frameCount);
+        channel.write(count, SessionLog.FRAME_COUNT_OFFSET);
+        channel.truncate(size);
+        channel.close();
+    }
+}
@@ -0,0 +1,161 @@
+package src.replay;
+
+import src.BrickerGameManager;
+import src.headless.HeadlessInputListener;
+import src.headless.HeadlessRunner;
+import src.levels.Level;
+import src.paddle_controllers.BotSkill;
+import src.metrics.FramePhase;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Re-drives a game from a recorded session log, headless and as fast as the CPU allows. Since the game
+ * is seeded and fed the recorded frame durations and keys, every replay of a log plays the identical
+ * session, and the frame times of different builds can be compared on it.
+ */
+public class SessionReplayer {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] REPORTED_PERCENTILES = {50, 99};
+
+    private final MappedByteBuffer log;
+    private final long seed;
+    private final int frameCount;
+    private final Level level;
+    private final BotSkill botSkill;
+    private final int framesStart; // offset of the first frame record
+
+    /**
+     * Opens a session log and validates its header.
+     * @param path Log to be replayed.
+     * @throws IOException If the file could not be read or is not a session log.
+     */
+    public SessionReplayer(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (log.remaining() < SessionLog.HEADER_SIZE || log.getInt() != SessionLog.MAGIC) {
+            throw new IOException(path + " is not a session log");
+        }
+        int version = log.getInt();
+        if (version != SessionLog.VERSION) {
+            throw new IOException("Unsupported session log version " + version);
+        }
+        seed = log.getLong();
+        frameCount = log.getInt();
+        int bot = log.get();
+        if (bot < 0 || bot > BotSkill.values().length) {
+            throw new IOException("Unknown bot " + bot + " in " + path);
+        }
+        botSkill = bot == 0 ? null : BotSkill.values()[bot - 1];
+        int rows = log.getInt();
+        int cols = log.getInt();
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Level.MAX_CELLS) {
+            throw new IOException("Invalid level size " + rows + "x" + cols + " in " + path);
+        }
+        int words = Level.wordsFor(rows, cols);
+        if (log.remaining() / Long.BYTES < words) {
+            throw new IOException(path + " is truncated");
+        }
+        long[] cells = new long[words];
+        log.asLongBuffer().get(cells);
+        level = new Level(rows, cols, cells);
+        framesStart = log.position() + words * Long.BYTES;
+        if (log.limit() - framesStart < (long) frameCount * SessionLog.FRAME_SIZE) {
+            throw new IOException(path + " is truncated");
+        }
+    }
+
+    /**
+     * Replays the whole session on the given game, which must not have been started. The paddle is
+     * handed to the recorded bot, if a bot played it.
+     * @param gameManager Game to replay on, configured as the recorded one was.
+     * @return Number of frames replayed before the log ended or the game closed.
+     * @throws IllegalArgumentException If the game is not played on the recorded level.
+     */
+    public int replay(BrickerGameManager gameManager) {
+        if (!gameManager.getLevel().equals(level)) {
+            throw new IllegalArgumentException("Game is not played on the recorded " + level.rows() + "x" +
+                    level.cols() + " level");
+        }
+        gameManager.setSeed(seed);
+        gameManager.setBotSkill(botSkill);
+        HeadlessRunner runner = new HeadlessRunner(gameManager, BrickerGameManager.WINDOW_DIMENSIONS, false);
+        HeadlessInputListener input = runner.inputListener();
+        runner.start();
+        log.position(framesStart);
+        for (int frame = 0; frame < frameCount; frame++) {
+            float deltaTime = log.getFloat();
+            byte keyMask = log.get();
+            for (int i = 0; i < SessionLog.KEYS.length; i++) {
+                if ((keyMask & (1 << i)) != 0) {
+                    input.press(SessionLog.KEYS[i]);
+                } else {
+                    input.release(SessionLog.KEYS[i]);
+                }
+            }
+            if (!runner.step(deltaTime)) {
+                return frame + 1;
+            }
+        }
+        return frameCount;
+    }
+
+    /**
+     * @return Skill of the bot that played the session, or null if the player did.
+     */
+    public BotSkill botSkill() {
+        return botSkill;
+    }
+
+    /**
+     * @return Level the session was played on.
+     */
+    public Level level() {
+        return level;
+    }
+
+    /**
+     * @return Number of frames in the log.
+     */
+    public int frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Replays a session log and reports the replay rate and the per-phase frame times.
+     * @param args Path of the log to be replayed.
+     * @throws IOException If the log could not be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: SessionReplayer <session log>");
+            return;
+        }
+        SessionReplayer replayer = new SessionReplayer(Paths.get(args[0]));
+        BrickerGameManager gameManager = new BrickerGameManager(BrickerGameManager.WINDOW_TITLE,
+                BrickerGameManager.WINDOW_DIMENSIONS, replayer.level());
+        long startTime = System.nanoTime();
+        int framesReplayed = replayer.replay(gameManager);
+        double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+        System.out.printf("Replayed %d of %d frames in %.3f s: %.0f frames/s%n", framesReplayed,
+                replayer.frameCount(), seconds, framesReplayed / seconds);
+        for (FramePhase phase : FramePhase.values()) {
+            if (phase == FramePhase.RENDER) {
+                continue; // nothing is rendered headless
+            }
+            System.out.printf("  %-14s", phase);
+            for (double percentile : REPORTED_PERCENTILES) {
+                System.out.printf("  p%.0f %8.1f us", percentile,
+                        gameManager.getFrameMetrics().getPhasePercentileMicros(phase.name(), percentile));
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package src.spectator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A console spectator: follows a game broadcast by a SpectatorServer and prints a summary of it once a
+ * second.
+ */
+public class SpectatorClient {
+
+    private static final int BUFFER_CAPACITY = 1 << 20;
+    private static final long REPORT_NANOS = 1_000_000_000L;
+
+    private final SpectatorState state = new SpectatorState();
+    private final ByteBuffer input; // kept in write mode between reads
+
+    /**
+     * Construct a client.
+     * @param bufferCapacity Size of the receive buffer; must hold the largest keyframe.
+     */
+    public SpectatorClient(int bufferCapacity) {
+        input = ByteBuffer.allocateDirect(bufferCapacity);
+    }
+
+    /**
+     * Follows a game until the server closes the connection.
+     * @param channel Connected, blocking channel to the server.
+     * @throws IOException If reading fails.
+     */
+    public void follow(SocketChannel channel) throws IOException {
+        long messages = 0;
+        long bytes = 0;
+        long lastReport = System.nanoTime();
+        int read;
+        while ((read = channel.read(input)) >= 0) {
+            bytes += read;
+            input.flip();
+            while (input.remaining() >= Integer.BYTES &&
+                    input.remaining() >= Integer.BYTES + input.getInt(input.position())) {
+                state.apply(input);
+                messages++;
+            }
+            input.compact();
+            long now = System.nanoTime();
+            if (now - lastReport >= REPORT_NANOS) {
+                report(messages, bytes);
+                messages = 0;
+                bytes = 0;
+                lastReport = now;
+            }
+        }
+    }
+
+    private void report(long messages, long bytes) {
+        if (!state.isValid()) {
+            System.out.println("waiting for keyframe");
+            return;
+        }
+        StringBuilder line = new StringBuilder(String.format(
+                "frame %d: %d lives, %d bricks, paddle x=%.0f", state.frame(), state.lives(), state.bricks(),
+                state.paddleX()));
+        for (int i = 0; i < state.numBalls(); i++) {
+            line.append(String.format(", ball (%.0f, %.0f)", state.ballX(i), state.ballY(i)));
+        }
+        line.append(String.format(" | %d msgs/s, %d bytes/s", messages, bytes));
+        System.out.println(line);
+    }
+
+    /**
+     * Spectates a game on this machine.
+     * @param args The server's port.
+     * @throws IOException If the server cannot be reached.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        try (SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            new SpectatorClient(BUFFER_CAPACITY).follow(channel);
+        }
+    }
+}
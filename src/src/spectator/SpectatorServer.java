@@ -0,0 +1,426 @@
+package src.spectator;
+
+import danogl.GameObject;
+import src.collisions.BrickGrid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Broadcasts the game to spectators connecting on the loopback interface, as a stream of per-frame
+ * deltas (see SpectatorState for the format).
+ * <p>
+ * The game thread only encodes each frame's delta into a ring of preallocated direct buffers and
+ * publishes its sequence number; it never blocks and never touches a socket. The server's own thread
+ * copies published frames out of the ring, applies them to a mirror of the game, and queues them on each
+ * spectator's send buffer. A spectator whose buffer is full is lagging: it is sent no more deltas and,
+ * once its buffer has drained, catches up with a single keyframe of the mirror.
+ */
+public class SpectatorServer implements Closeable {
+
+    private static final int RING_SLOTS = 16; // a power of two
+    private static final int MIN_SLOT_CAPACITY = 16 * 1024;
+    private static final int MIN_CLIENT_BUFFER = 64 * 1024;
+    private static final long SELECT_TIMEOUT_MILLIS = 2; // published frames are picked up this often
+    private static final long WRITING = -1; // sequence of a slot being written
+
+    private final ByteBuffer[] slots = new ByteBuffer[RING_SLOTS]; // written by the game thread
+    private final ByteBuffer[] slotViews = new ByteBuffer[RING_SLOTS]; // read by the server thread
+    private final AtomicLongArray slotSequences = new AtomicLongArray(RING_SLOTS);
+    private volatile long published = -1;
+    private volatile boolean keyframeRequested = true;
+    private volatile boolean running = true;
+    private final int slotCapacity;
+    private final int clientBufferCapacity;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+
+    // game thread only
+    private long sequence = -1;
+    private float[] lastBallX = new float[0];
+    private float[] lastBallY = new float[0];
+    private float lastPaddleX = Float.NaN;
+    private float lastPaddleY = Float.NaN;
+    private int lastLives = -1;
+    private int lastBricks = -1;
+    private int[] removedCells = new int[64];
+    private int numRemoved = 0;
+
+    // server thread only
+    private final SpectatorState mirror = new SpectatorState();
+    private final ByteBuffer frameCopy;
+    private long consumed = -1;
+
+    /**
+     * Construct a server and start its thread.
+     * @param port Port to listen on, on the loopback interface; 0 picks a free one.
+     * @param numBalls Number of balls in the game.
+     * @param gridWords Number of 64-bit words of the game's brick cells.
+     * @throws IOException If the port cannot be bound.
+     */
+    public SpectatorServer(int port, int numBalls, int gridWords) throws IOException {
+        int keyframeSize = SpectatorState.keyframeSize(numBalls, gridWords);
+        slotCapacity = Math.max(MIN_SLOT_CAPACITY, keyframeSize);
+        clientBufferCapacity = Math.max(MIN_CLIENT_BUFFER, 2 * keyframeSize);
+        for (int i = 0; i < RING_SLOTS; i++) {
+            slots[i] = ByteBuffer.allocateDirect(slotCapacity);
+            slotViews[i] = slots[i].duplicate();
+            slotSequences.set(i, WRITING);
+        }
+        frameCopy = ByteBuffer.allocateDirect(slotCapacity);
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::run, "spectator-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return Port the server listens on.
+     */
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Records a brick removed from the grid during the current frame. Called on the game thread.
+     * @param cell Index of the brick's cell.
+     */
+    public void brickRemoved(int cell) {
+        if (numRemoved == removedCells.length) {
+            removedCells = Arrays.copyOf(removedCells, 2 * numRemoved);
+        }
+        removedCells[numRemoved++] = cell;
+    }
+
+    /**
+     * Makes the next published frame a keyframe, as after the game was reset or restored. Called on the
+     * game thread.
+     */
+    public void requestKeyframe() {
+        keyframeRequested = true;
+    }
+
+    /**
+     * Publishes the current frame to spectators: a delta from the previous frame, or a keyframe if one was
+     * requested or the delta does not fit a ring slot. Called on the game thread, at the end of a frame;
+     * never blocks.
+     * @param balls The game's balls.
+     * @param paddle The game's paddle.
+     * @param lives Number of lives left.
+     * @param grid The game's brick grid.
+     */
+    public void publish(GameObject[] balls, GameObject paddle, int lives, BrickGrid grid) {
+        long seq = sequence + 1;
+        int slot = (int) (seq & (RING_SLOTS - 1));
+        slotSequences.set(slot, WRITING);
+        VarHandle.storeStoreFence(); // the mark is visible before any of the frame's bytes
+        ByteBuffer buffer = slots[slot];
+        buffer.clear();
+        boolean keyframe = keyframeRequested || lastBallX.length != balls.length ||
+                deltaBound(balls.length) > slotCapacity;
+        if (keyframe) {
+            keyframeRequested = false;
+            writeKeyframe(buffer, seq, balls, paddle, lives, grid);
+        } else {
+            writeDelta(buffer, seq, balls, paddle, lives, grid.brickCount());
+        }
+        numRemoved = 0;
+        sequence = seq;
+        slotSequences.set(slot, seq);
+        published = seq;
+    }
+
+    private int deltaBound(int numBalls) {
+        return SpectatorState.HEADER_SIZE + Byte.BYTES + 4 * Float.BYTES + Short.BYTES +
+                numBalls * (Short.BYTES + 2 * Float.BYTES) + Integer.BYTES * (1 + numRemoved);
+    }
+
+    private void writeKeyframe(ByteBuffer buffer, long seq, GameObject[] balls, GameObject paddle, int lives,
+                               BrickGrid grid) {
+        if (lastBallX.length != balls.length) {
+            lastBallX = new float[balls.length];
+            lastBallY = new float[balls.length];
+        }
+        buffer.putInt(SpectatorState.keyframeSize(balls.length, grid.cellsSize() / Long.BYTES) -
+                Integer.BYTES).put(SpectatorState.KEYFRAME).putLong(seq);
+        lastPaddleX = paddle.getTopLeftCorner().x();
+        lastPaddleY = paddle.getTopLeftCorner().y();
+        lastLives = lives;
+        lastBricks = grid.brickCount();
+        buffer.putFloat(lastPaddleX).putFloat(lastPaddleY).putInt(lastLives).putInt(lastBricks)
+                .putShort((short) balls.length);
+        for (int i = 0; i < balls.length; i++) {
+            lastBallX[i] = balls[i].getTopLeftCorner().x();
+            lastBallY[i] = balls[i].getTopLeftCorner().y();
+            buffer.putFloat(lastBallX[i]).putFloat(lastBallY[i]);
+        }
+        buffer.putInt(grid.bricksPerColumn()).putInt(grid.bricksPerRow())
+                .putInt(grid.cellsSize() / Long.BYTES);
+        grid.writeCells(buffer);
+    }
+
+    private void writeDelta(ByteBuffer buffer, long seq, GameObject[] balls, GameObject paddle, int lives,
+                            int bricks) {
+        buffer.putInt(0).put(SpectatorState.DELTA).putLong(seq); // length is filled in last
+        float paddleX = paddle.getTopLeftCorner().x();
+        float paddleY = paddle.getTopLeftCorner().y();
+        int flags = 0;
+        if (paddleX != lastPaddleX || paddleY != lastPaddleY) {
+            flags |= SpectatorState.PADDLE_CHANGED;
+        }
+        if (lives != lastLives) {
+            flags |= SpectatorState.LIVES_CHANGED;
+        }
+        if (bricks != lastBricks) {
+            flags |= SpectatorState.BRICKS_CHANGED;
+        }
+        buffer.put((byte) flags);
+        if ((flags & SpectatorState.PADDLE_CHANGED) != 0) {
+            buffer.putFloat(paddleX).putFloat(paddleY);
+            lastPaddleX = paddleX;
+            lastPaddleY = paddleY;
+        }
+        if ((flags & SpectatorState.LIVES_CHANGED) != 0) {
+            buffer.putInt(lives);
+            lastLives = lives;
+        }
+        if ((flags & SpectatorState.BRICKS_CHANGED) != 0) {
+            buffer.putInt(bricks);
+            lastBricks = bricks;
+        }
+        int countPosition = buffer.position();
+        buffer.putShort((short) 0);
+        short numChanged = 0;
+        for (int i = 0; i < balls.length; i++) {
+            float x = balls[i].getTopLeftCorner().x();
+            float y = balls[i].getTopLeftCorner().y();
+            if (x != lastBallX[i] || y != lastBallY[i]) {
+                buffer.putShort((short) i).putFloat(x).putFloat(y);
+                lastBallX[i] = x;
+                lastBallY[i] = y;
+                numChanged++;
+            }
+        }
+        buffer.putShort(countPosition, numChanged);
+        buffer.putInt(numRemoved);
+        for (int i = 0; i < numRemoved; i++) {
+            buffer.putInt(removedCells[i]);
+        }
+        buffer.putInt(0, buffer.position() - Integer.BYTES);
+    }
+
+    /**
+     * The server thread: accepts spectators, forwards published frames and flushes send buffers.
+     */
+    private void run() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        drainInput(key);
+                    }
+                }
+                forwardPublished();
+                for (SelectionKey key : selector.keys()) {
+                    if (key.isValid() && key.attachment() != null) {
+                        flush(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spectator server stopped: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Spectator spectator = new Spectator(ByteBuffer.allocateDirect(clientBufferCapacity));
+        channel.register(selector, SelectionKey.OP_READ, spectator);
+    }
+
+    /**
+     * Spectators send nothing; reading only notices them leaving.
+     */
+    private void drainInput(SelectionKey key) {
+        Spectator spectator = (Spectator) key.attachment();
+        try {
+            spectator.input.clear();
+            if (((SocketChannel) key.channel()).read(spectator.input) < 0) {
+                disconnect(key);
+            }
+        } catch (IOException e) {
+            disconnect(key);
+        }
+    }
+
+    /**
+     * Copies every frame published since the last call out of the ring, applies it to the mirror and
+     * queues it for every spectator. If the game thread has lapped the ring, the frames lost are replaced
+     * by a keyframe requested from it.
+     */
+    private void forwardPublished() {
+        long latest = published;
+        if (latest - consumed > RING_SLOTS) {
+            lapped(latest);
+            return;
+        }
+        while (consumed < latest) {
+            long seq = consumed + 1;
+            int slot = (int) (seq & (RING_SLOTS - 1));
+            if (slotSequences.get(slot) != seq) {
+                lapped(latest);
+                return;
+            }
+            ByteBuffer view = slotViews[slot];
+            view.clear();
+            int length = view.getInt(0);
+            if (length < 0 || length > slotCapacity - Integer.BYTES) { // overwritten since checked
+                lapped(latest);
+                return;
+            }
+            view.limit(Integer.BYTES + length);
+            frameCopy.clear();
+            frameCopy.put(view);
+            frameCopy.flip();
+            VarHandle.loadLoadFence(); // the copy is read before the sequence is checked again
+            if (slotSequences.get(slot) != seq) { // overwritten while copied
+                lapped(latest);
+                return;
+            }
+            consumed = seq;
+            boolean keyframe = frameCopy.get(Integer.BYTES) == SpectatorState.KEYFRAME;
+            if (keyframe || mirror.isValid()) {
+                mirror.apply(frameCopy);
+                frameCopy.rewind();
+                queue(frameCopy, keyframe);
+            }
+        }
+    }
+
+    private void lapped(long latest) {
+        consumed = latest;
+        mirror.invalidate();
+        keyframeRequested = true;
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() != null) {
+                ((Spectator) key.attachment()).needsKeyframe = true;
+            }
+        }
+    }
+
+    private void queue(ByteBuffer frame, boolean keyframe) {
+        for (SelectionKey key : selector.keys()) {
+            Spectator spectator = (Spectator) key.attachment();
+            if (spectator == null || !key.isValid()) {
+                continue;
+            }
+            if (keyframe && spectator.output.remaining() >= frame.remaining()) {
+                spectator.needsKeyframe = false; // the keyframe is as good as one of the mirror
+            }
+            if (spectator.needsKeyframe) {
+                continue;
+            }
+            if (spectator.output.remaining() < frame.remaining()) {
+                spectator.needsKeyframe = true; // lagging; the deltas it misses are never sent
+                continue;
+            }
+            spectator.output.put(frame);
+            frame.rewind();
+        }
+    }
+
+    /**
+     * Writes as much of a spectator's send buffer as the socket takes, then gives a lagging spectator its
+     * keyframe once the buffer has room for it.
+     */
+    private void flush(SelectionKey key) {
+        Spectator spectator = (Spectator) key.attachment();
+        ByteBuffer output = spectator.output;
+        try {
+            if (output.position() > 0) {
+                output.flip();
+                ((SocketChannel) key.channel()).write(output);
+                output.compact();
+            }
+        } catch (IOException e) {
+            disconnect(key);
+            return;
+        }
+        if (spectator.needsKeyframe && mirror.isValid() && output.remaining() >= mirror.keyframeSize()) {
+            mirror.writeKeyframe(output);
+            spectator.needsKeyframe = false;
+        }
+    }
+
+    private void disconnect(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+
+    /**
+     * Stops the server thread and disconnects every spectator.
+     * @throws IOException If the listening socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /**
+     * A connected spectator's buffers. The send buffer is kept in write mode, holding only whole messages
+     * apart from the one partly sent at its start.
+     */
+    private static class Spectator {
+        private final ByteBuffer output;
+        private final ByteBuffer input = ByteBuffer.allocateDirect(64);
+        private boolean needsKeyframe = true; // until its first keyframe
+
+        private Spectator(ByteBuffer output) {
+            this.output = output;
+        }
+    }
+}
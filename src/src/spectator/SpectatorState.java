@@ -0,0 +1,217 @@
+package src.spectator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The state of a game as seen by spectators: ball and paddle positions, counters, and one bit per brick
+ * cell. Kept up to date from the messages of the spectator protocol, by the server (to send keyframes to
+ * spectators joining or lagging) and by every spectator.
+ * <p>
+ * Every message is a length-prefixed record, all values big-endian:
+ * <pre>
+ *   int length (of the rest), byte type, long frame number, then
+ *   KEYFRAME: float paddleX, float paddleY, int lives, int bricks, short numBalls, {float x, float y}[],
+ *             int rows, int cols, int words, long[words] brick cells
+ *   DELTA:    byte flags, [float paddleX, float paddleY], [int lives], [int bricks],
+ *             short numBallsChanged, {short index, float x, float y}[], int numRemoved, int[] removed cells
+ * </pre>
+ * The optional fields of a delta are present if their flag is set.
+ */
+public class SpectatorState {
+
+    /** Type of a message holding the whole state. */
+    public static final byte KEYFRAME = 1;
+    /** Type of a message holding the changes since the previous frame. */
+    public static final byte DELTA = 2;
+    /** Delta flag: the paddle moved. */
+    public static final int PADDLE_CHANGED = 1;
+    /** Delta flag: the number of lives changed. */
+    public static final int LIVES_CHANGED = 2;
+    /** Delta flag: the number of bricks changed. */
+    public static final int BRICKS_CHANGED = 4;
+    /** Size of a message's header, before its type-specific body. */
+    public static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES;
+
+    private long frame = -1;
+    private float paddleX;
+    private float paddleY;
+    private int lives;
+    private int bricks;
+    private float[] ballX = new float[0];
+    private float[] ballY = new float[0];
+    private int rows;
+    private int cols;
+    private long[] cells = new long[0];
+    private boolean valid = false;
+
+    /**
+     * Applies a message to the state.
+     * @param message Buffer holding a whole message, read from its position (its length prefix) on.
+     */
+    public void apply(ByteBuffer message) {
+        message.getInt(); // length
+        byte type = message.get();
+        frame = message.getLong();
+        if (type == KEYFRAME) {
+            paddleX = message.getFloat();
+            paddleY = message.getFloat();
+            lives = message.getInt();
+            bricks = message.getInt();
+            int numBalls = message.getShort();
+            if (ballX.length != numBalls) {
+                ballX = new float[numBalls];
+                ballY = new float[numBalls];
+            }
+            for (int i = 0; i < numBalls; i++) {
+                ballX[i] = message.getFloat();
+                ballY[i] = message.getFloat();
+            }
+            rows = message.getInt();
+            cols = message.getInt();
+            int words = message.getInt();
+            if (cells.length != words) {
+                cells = new long[words];
+            }
+            for (int i = 0; i < words; i++) {
+                cells[i] = message.getLong();
+            }
+            valid = true;
+            return;
+        }
+        int flags = message.get();
+        if ((flags & PADDLE_CHANGED) != 0) {
+            paddleX = message.getFloat();
+            paddleY = message.getFloat();
+        }
+        if ((flags & LIVES_CHANGED) != 0) {
+            lives = message.getInt();
+        }
+        if ((flags & BRICKS_CHANGED) != 0) {
+            bricks = message.getInt();
+        }
+        int numChanged = message.getShort();
+        for (int i = 0; i < numChanged; i++) {
+            int ball = message.getShort();
+            ballX[ball] = message.getFloat();
+            ballY[ball] = message.getFloat();
+        }
+        int numRemoved = message.getInt();
+        for (int i = 0; i < numRemoved; i++) {
+            int cell = message.getInt();
+            cells[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * @return Size, in bytes, of a keyframe of the current state.
+     */
+    public int keyframeSize() {
+        return keyframeSize(ballX.length, cells.length);
+    }
+
+    /**
+     * @param numBalls Number of balls.
+     * @param words Number of 64-bit words of brick cells.
+     * @return Size, in bytes, of a keyframe of a game of the given size.
+     */
+    public static int keyframeSize(int numBalls, int words) {
+        return HEADER_SIZE + 4 * Float.BYTES + Short.BYTES + numBalls * 2 * Float.BYTES + 3 * Integer.BYTES +
+                words * Long.BYTES;
+    }
+
+    /**
+     * Writes a keyframe of the current state.
+     * @param buffer Buffer with at least keyframeSize() bytes remaining, written from its position.
+     */
+    public void writeKeyframe(ByteBuffer buffer) {
+        buffer.putInt(keyframeSize() - Integer.BYTES).put(KEYFRAME).putLong(frame);
+        buffer.putFloat(paddleX).putFloat(paddleY).putInt(lives).putInt(bricks)
+                .putShort((short) ballX.length);
+        for (int i = 0; i < ballX.length; i++) {
+            buffer.putFloat(ballX[i]).putFloat(ballY[i]);
+        }
+        buffer.putInt(rows).putInt(cols).putInt(cells.length);
+        for (long word : cells) {
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Marks the state as unknown, until the next keyframe is applied.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return true if a keyframe has been applied since the state was last invalidated.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * @return Number of the last frame applied.
+     */
+    public long frame() {
+        return frame;
+    }
+
+    /**
+     * @return Number of lives left.
+     */
+    public int lives() {
+        return lives;
+    }
+
+    /**
+     * @return Number of bricks left.
+     */
+    public int bricks() {
+        return bricks;
+    }
+
+    /**
+     * @return x-value of the paddle's top-left corner.
+     */
+    public float paddleX() {
+        return paddleX;
+    }
+
+    /**
+     * @return Number of balls.
+     */
+    public int numBalls() {
+        return ballX.length;
+    }
+
+    /**
+     * @param ball Index of ball.
+     * @return x-value of the ball's top-left corner.
+     */
+    public float ballX(int ball) {
+        return ballX[ball];
+    }
+
+    /**
+     * @param ball Index of ball.
+     * @return y-value of the ball's top-left corner.
+     */
+    public float ballY(int ball) {
+        return ballY[ball];
+    }
+
+    /**
+     * @return Number of rows of brick cells.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return Number of brick cells in each row.
+     */
+    public int cols() {
+        return cols;
+    }
+}
@@ -0,0 +1,61 @@
+package src.util;
+
+import danogl.util.Vector2;
+
+/**
+ * Two-dimensional vector with mutable primitive fields, for scratch arithmetic on per-frame paths where
+ * allocating an immutable Vector2 for every intermediate result would be wasteful.
+ */
+public class MutableVector2 {
+
+    private float x;
+    private float y;
+
+    /**
+     * @return x coordinate of vector.
+     */
+    public float x() {
+        return x;
+    }
+
+    /**
+     * @return y coordinate of vector.
+     */
+    public float y() {
+        return y;
+    }
+
+    /**
+     * Sets the coordinates of this vector.
+     * @param x New x coordinate.
+     * @param y New y coordinate.
+     * @return This vector.
+     */
+    public MutableVector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Copies the coordinates of another vector into this one.
+     * @param other Vector to copy.
+     * @return This vector.
+     */
+    public MutableVector2 set(Vector2 other) {
+        return set(other.x(), other.y());
+    }
+
+    /**
+     * Reflects this vector off a surface, as Vector2.flipped does.
+     * @param normalX x coordinate of the surface's unit normal.
+     * @param normalY y coordinate of the surface's unit normal.
+     * @return This vector.
+     */
+    public MutableVector2 reflect(float normalX, float normalY) {
+        float twiceDot = 2 * (x * normalX + y * normalY);
+        x -= twiceDot * normalX;
+        y -= twiceDot * normalY;
+        return this;
+    }
+}
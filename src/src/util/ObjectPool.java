@@ -0,0 +1,79 @@
+package src.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable objects. Objects are acquired one by one and all released together, typically when a
+ * game is reset, so a new game re-arms existing instances instead of allocating new ones. Short-lived
+ * objects may also be released one by one as soon as they are done with.
+ * @param <T> Type of pooled objects.
+ */
+public class ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+    private final List<T> inUse = new ArrayList<>();
+    private long created = 0;
+
+    /**
+     * Construct a new, empty pool.
+     * @param factory Creates a new object when the pool has no free one.
+     */
+    public ObjectPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return A free object of the pool, newly created only if there is none. The caller is expected to
+     *         re-arm it before use.
+     */
+    public T acquire() {
+        T object = free.poll();
+        if (object == null) {
+            object = factory.get();
+            created++;
+        }
+        inUse.add(object);
+        return object;
+    }
+
+    /**
+     * Returns a single acquired object to the pool.
+     * @param object Object acquired from this pool, no longer in use.
+     */
+    public void release(T object) {
+        for (int i = inUse.size() - 1; i >= 0; i--) { // recently acquired objects are released first
+            if (inUse.get(i) == object) {
+                inUse.set(i, inUse.get(inUse.size() - 1)); // order of objects in use does not matter
+                inUse.remove(inUse.size() - 1);
+                free.add(object);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns every acquired object to the pool.
+     */
+    public void releaseAll() {
+        free.addAll(inUse);
+        inUse.clear();
+    }
+
+    /**
+     * @return Objects acquired since the pool was last released.
+     */
+    public List<T> inUse() {
+        return inUse;
+    }
+
+    /**
+     * @return Number of objects ever created by the pool.
+     */
+    public long created() {
+        return created;
+    }
+}
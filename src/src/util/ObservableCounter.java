@@ -0,0 +1,73 @@
+package src.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Integer counter that notifies its subscribers whenever its value changes, so that displays of the value
+ * need not poll it every frame.
+ */
+public class ObservableCounter {
+
+    private final List<IntConsumer> subscribers = new ArrayList<>();
+    private int value = 0;
+
+    /**
+     * Subscribes to changes of the counter's value.
+     * @param subscriber Called with the new value whenever it changes.
+     */
+    public void subscribe(IntConsumer subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * @return Current value of counter.
+     */
+    public int value() {
+        return value;
+    }
+
+    /**
+     * Increases the value by one.
+     */
+    public void increment() {
+        set(value + 1);
+    }
+
+    /**
+     * Decreases the value by one.
+     */
+    public void decrement() {
+        set(value - 1);
+    }
+
+    /**
+     * Increases the value.
+     * @param amount Amount to increase value by.
+     */
+    public void increaseBy(int amount) {
+        set(value + amount);
+    }
+
+    /**
+     * Sets the value to zero.
+     */
+    public void reset() {
+        set(0);
+    }
+
+    /**
+     * Sets the value, notifying subscribers if it changed.
+     * @param newValue New value of counter.
+     */
+    public void set(int newValue) {
+        if (newValue == value) {
+            return;
+        }
+        value = newValue;
+        for (IntConsumer subscriber : subscribers) {
+            subscriber.accept(newValue);
+        }
+    }
+}
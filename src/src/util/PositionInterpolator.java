@@ -0,0 +1,82 @@
+package src.util;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * Draws moving objects between their last two simulated positions, so that motion looks smooth when
+ * frames are rendered at a different rate than the simulation steps. Objects are moved to their drawn
+ * positions only between frames; their simulated positions are restored before anything else reads them.
+ */
+public class PositionInterpolator {
+
+    private GameObject[] objects = new GameObject[0];
+    private Vector2[] previous = new Vector2[0];
+    private Vector2[] simulated = new Vector2[0];
+    private boolean interpolated = false;
+
+    /**
+     * Sets the objects to be interpolated, forgetting any previous ones.
+     * @param objects Moving objects.
+     */
+    public void track(GameObject... objects) {
+        this.objects = objects;
+        previous = new Vector2[objects.length];
+        simulated = new Vector2[objects.length];
+        interpolated = false;
+    }
+
+    /**
+     * Moves the objects back to their simulated positions. Called at the start of a frame.
+     */
+    public void restore() {
+        if (!interpolated) {
+            return;
+        }
+        for (int i = 0; i < objects.length; i++) {
+            objects[i].setTopLeftCorner(simulated[i]);
+        }
+        interpolated = false;
+    }
+
+    /**
+     * Remembers the objects' positions before a simulation step.
+     */
+    public void beforeStep() {
+        for (int i = 0; i < objects.length; i++) {
+            previous[i] = objects[i].getTopLeftCorner();
+        }
+    }
+
+    /**
+     * Forgets the objects' positions before the last step, so that they are drawn where they are until
+     * the next step. Called whenever objects are placed directly rather than moved, e.g. when a life is
+     * lost or a snapshot is restored, so that they do not appear to slide from their old positions.
+     */
+    public void forget() {
+        Arrays.fill(previous, null);
+    }
+
+    /**
+     * Moves the objects to where they are drawn, between their positions before and after the last step.
+     * Called at the end of a frame. Objects drawn where they are simulated, as every object is when frames
+     * keep pace with steps, are left in place; only the others allocate a position.
+     * @param alpha Fraction of a step by which the frame lags the simulation, between 0 and 1.
+     */
+    public void interpolate(float alpha) {
+        for (int i = 0; i < objects.length; i++) {
+            Vector2 from = previous[i];
+            Vector2 to = objects[i].getTopLeftCorner();
+            simulated[i] = to;
+            if (from == null || alpha == 0 || (from.x() == to.x() && from.y() == to.y())) {
+                continue; // drawn where simulated, so no position is created
+            }
+            // computed in floats, as Vector2 arithmetic allocates at every operation
+            objects[i].setTopLeftCorner(Vector2.of(from.x() + (to.x() - from.x()) * alpha,
+                    from.y() + (to.y() - from.y()) * alpha));
+        }
+        interpolated = true;
+    }
+}
@@ -0,0 +1,52 @@
+package src.util;
+
+import java.util.Random;
+
+/**
+ * Random generator whose internal state can be read and set, so that a saved game resumes with the exact
+ * random choices it would have made. Produces the same sequence as java.util.Random for the same seed.
+ */
+public class RestorableRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    // constants of java.util.Random's linear congruential generator.
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state; // set by the superclass constructor, through setSeed
+
+    /**
+     * Construct a new random generator.
+     * @param seed Initial seed.
+     */
+    public RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * @return The generator's internal state.
+     */
+    public long state() {
+        return state;
+    }
+
+    /**
+     * @param state An internal state previously returned by state().
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,64 @@
+package src.util;
+
+/**
+ * Splits the variable time between rendered frames into whole, fixed simulation steps. Time left over
+ * from a frame is carried to the next, so the simulation advances at exactly real-time speed while every
+ * step has the same duration, however the frame rate jitters. The fraction of a step left over tells how
+ * far between the last two simulated states a frame should be drawn.
+ */
+public class TickScheduler {
+
+    private final float stepSeconds;
+    private final int maxStepsPerFrame;
+    private float accumulator = 0;
+
+    /**
+     * Construct a new tick scheduler.
+     * @param stepSeconds Duration of a single simulation step, in seconds.
+     * @param maxStepsPerFrame Greatest number of steps run for one frame. Time beyond them is dropped, so
+     *                         a stalled frame slows the game down rather than making it run ever more steps
+     *                         to catch up.
+     */
+    public TickScheduler(float stepSeconds, int maxStepsPerFrame) {
+        this.stepSeconds = stepSeconds;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Adds a frame's time, and takes the whole steps it completes.
+     * @param deltaTime The time, in seconds, that passed since the last frame.
+     * @return Number of steps to simulate for the frame.
+     */
+    public int advance(float deltaTime) {
+        accumulator += deltaTime;
+        int steps = (int) (accumulator / stepSeconds);
+        if (steps > maxStepsPerFrame) {
+            steps = maxStepsPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= steps * stepSeconds;
+        }
+        return steps;
+    }
+
+    /**
+     * @return Fraction, between 0 and 1, of a step accumulated but not yet simulated.
+     */
+    public float alpha() {
+        return Math.min(1, accumulator / stepSeconds);
+    }
+
+    /**
+     * @return Duration of a single simulation step, in seconds.
+     */
+    public float stepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Drops any time accumulated, e.g. when the simulation resumes after a pause.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+}
@@ -0,0 +1,161 @@
+package src.util;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Hashed timing wheel: schedules tasks to run after a delay, counted in fixed ticks. Tasks are hashed by
+ * their expiry tick into a ring of slots; each tick visits only the slot under the wheel's hand, so
+ * scheduling and expiring cost O(1) per task however many are pending. Tasks due more than a full turn
+ * of the wheel ahead wait in their slot for the remaining number of turns.
+ * <p>
+ * Pending tasks are kept in int-linked lists over parallel arrays, reused as tasks expire, so scheduling
+ * allocates nothing once the wheel has grown to its working size.
+ */
+public class TimingWheel {
+
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final float tickSeconds;
+    private final int slotMask;
+    private final int[] slotHeads;
+    private Runnable[] tasks = new Runnable[INITIAL_CAPACITY];
+    private int[] turns = new int[INITIAL_CAPACITY]; // full turns of the wheel left before expiry
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int freeHead = NIL;
+    private int used = 0; // entries ever used; entries past it have never been linked
+    private int size = 0;
+    private int hand = 0;
+
+    /**
+     * Construct a new, empty timing wheel.
+     * @param numSlots Number of slots of the wheel, a power of two. Delays of up to numSlots ticks expire
+     *                 without waiting out extra turns.
+     * @param tickSeconds Duration of a tick, in seconds.
+     */
+    public TimingWheel(int numSlots, float tickSeconds) {
+        if (Integer.bitCount(numSlots) != 1) {
+            throw new IllegalArgumentException("Number of slots must be a power of two, got " + numSlots);
+        }
+        this.tickSeconds = tickSeconds;
+        this.slotMask = numSlots - 1;
+        slotHeads = new int[numSlots];
+        Arrays.fill(slotHeads, NIL);
+    }
+
+    /**
+     * Schedules a task to run after a delay.
+     * @param delaySeconds Delay, in seconds, rounded up to whole ticks; at least one tick.
+     * @param task Task to run, on the thread calling tick.
+     */
+    public void schedule(float delaySeconds, Runnable task) {
+        scheduleTicks(Math.max(1, (int) Math.ceil(delaySeconds / tickSeconds)), task);
+    }
+
+    /**
+     * Schedules a task to run after a number of ticks.
+     * @param ticks Ticks before the task runs, at least one.
+     * @param task Task to run, on the thread calling tick.
+     */
+    public void scheduleTicks(int ticks, Runnable task) {
+        int entry = allocate();
+        tasks[entry] = task;
+        turns[entry] = (ticks - 1) / slotHeads.length;
+        int slot = (hand + ticks) & slotMask;
+        next[entry] = slotHeads[slot];
+        slotHeads[slot] = entry;
+        size++;
+    }
+
+    /**
+     * Advances the wheel by one tick, running every task that expires on it.
+     * @return Number of tasks run.
+     */
+    public int tick() {
+        hand = (hand + 1) & slotMask;
+        int expired = 0;
+        // the slot's list is detached and rebuilt, so that tasks run may schedule new ones into it.
+        int entry = slotHeads[hand];
+        slotHeads[hand] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            if (turns[entry] > 0) {
+                turns[entry]--;
+                next[entry] = slotHeads[hand];
+                slotHeads[hand] = entry;
+            } else {
+                Runnable task = tasks[entry];
+                release(entry);
+                task.run();
+                expired++;
+            }
+            entry = following;
+        }
+        return expired;
+    }
+
+    /**
+     * Calls an action for every pending task, e.g. to save the wheel's state.
+     * @param action Receives each task and the number of ticks left before it runs, as scheduleTicks
+     *               takes them.
+     */
+    public void forEachPending(ObjIntConsumer<Runnable> action) {
+        for (int slot = 0; slot < slotHeads.length; slot++) {
+            int distance = (slot - hand) & slotMask;
+            if (distance == 0) { // the hand has just left this slot
+                distance = slotHeads.length;
+            }
+            for (int entry = slotHeads[slot]; entry != NIL; entry = next[entry]) {
+                action.accept(tasks[entry], distance + turns[entry] * slotHeads.length);
+            }
+        }
+    }
+
+    /**
+     * @return Number of tasks pending.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every pending task without running it.
+     */
+    public void clear() {
+        Arrays.fill(slotHeads, NIL);
+        Arrays.fill(tasks, null);
+        freeHead = NIL;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * @return Index of an unused entry, the arrays grown if there is none.
+     */
+    private int allocate() {
+        if (freeHead != NIL) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (used == tasks.length) {
+            int capacity = tasks.length * 2;
+            tasks = Arrays.copyOf(tasks, capacity);
+            turns = Arrays.copyOf(turns, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    /**
+     * Returns an expired entry to the free list.
+     * @param entry Index of entry.
+     */
+    private void release(int entry) {
+        tasks[entry] = null;
+        next[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+}